@@ -0,0 +1,45 @@
+package cloud.topdaddy.admin.archive;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 归档段索引项
+ *
+ * @author topdaddy
+ */
+@Data
+public class ArchiveSegment implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 相对于表归档目录的文件路径
+     */
+    private String file;
+
+    /**
+     * 段内最早时间
+     */
+    private LocalDateTime minTime;
+
+    /**
+     * 段内最晚时间
+     */
+    private LocalDateTime maxTime;
+
+    /**
+     * 行数
+     */
+    private long rows;
+
+    /**
+     * 时间范围是否与 [from, to) 相交，null 表示不限
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return (from == null || !maxTime.isBefore(from)) && (to == null || minTime.isBefore(to));
+    }
+}
@@ -0,0 +1,390 @@
+package cloud.topdaddy.admin.archive;
+
+import cloud.topdaddy.admin.config.LogArchiveProperties;
+import cloud.topdaddy.admin.entity.SysLoginLog;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import cloud.topdaddy.admin.mapper.SysLoginLogMapper;
+import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 日志冷归档存储
+ * <p>
+ * 过期日志在删除前通过只进游标流式写入按月分桶的 gzip NDJSON 段文件，
+ * 每张表维护一个记录各段最早/最晚时间的索引，查询时只读取时间范围相交的段。
+ * <p>
+ * 多节点部署时归档目录必须是各节点共享的存储，归档由持有清理锁的节点执行，
+ * 其他节点在索引文件变化后重新加载索引，所有节点看到相同的历史数据。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LogArchiveStore {
+
+    private final SysOperationLogMapper operationLogMapper;
+    private final SysLoginLogMapper loginLogMapper;
+    private final LogArchiveProperties logArchiveProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String INDEX_FILE = "index.json";
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * 表名 -> 段索引
+     */
+    private final Map<String, List<ArchiveSegment>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 表名 -> 已加载索引文件的修改时间和大小
+     */
+    private final Map<String, String> indexStamps = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String table : List.of(LogPartitionService.OPERATION_LOG_TABLE, LogPartitionService.LOGIN_LOG_TABLE)) {
+            index(table);
+        }
+    }
+
+    /**
+     * 是否启用归档
+     */
+    public boolean isEnabled() {
+        return logArchiveProperties.isEnabled();
+    }
+
+    /**
+     * 归档 [from, to) 范围内的日志，from 为 null 表示不限，返回归档行数。
+     * <p>
+     * 已归档的数据总是从最早一直到某个时间点，对应的数据库行可能已删除，
+     * 因此只从最后一个段的最晚时间之后开始读取，已有的段从不替换，重复执行不会产生重复数据。
+     */
+    public synchronized long archive(String table, LocalDateTime from, LocalDateTime to) {
+        // 索引可能已被其他节点更新，归档前以共享目录中的索引为准
+        List<ArchiveSegment> previous = index(table);
+        List<ArchiveSegment> index = new ArrayList<>(previous);
+        LocalDateTime start = archivedUntil(previous)
+                .filter(watermark -> from == null || watermark.isAfter(from))
+                .orElse(from);
+        if (start != null && to != null && !start.isBefore(to)) {
+            log.info("日志已归档，表: {}, 范围: [{}, {})", table, from, to);
+            return 0L;
+        }
+
+        Long rows;
+        try {
+            rows = transactionTemplate.execute(status -> readAndWrite(table, start, to, index));
+        } catch (RuntimeException e) {
+            // 清理本次已写完的段，索引保持不变
+            index.stream().filter(segment -> !previous.contains(segment))
+                    .forEach(segment -> deleteQuietly(tableDir(table).resolve(segment.getFile())));
+            throw e;
+        }
+
+        saveIndex(table, index);
+        log.info("归档日志完成，表: {}, 范围: [{}, {}), 行数: {}", table, start, to, rows);
+        return rows == null ? 0L : rows;
+    }
+
+    /**
+     * 已归档数据的上界（不含），未启用归档或尚未归档时返回 null。
+     * <p>
+     * 早于该时间的数据以归档为准，数据库中的对应行可能已删除，也可能因清理失败仍然保留，
+     * 查询时数据库只读取该时间之后的部分，避免遗漏或重复。
+     */
+    public LocalDateTime archivedUntil(String table) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return archivedUntil(index(table)).orElse(null);
+    }
+
+    /**
+     * 已归档数据的上界（不含），日志时间列精度为秒，取最晚时间的下一秒
+     */
+    private static Optional<LocalDateTime> archivedUntil(List<ArchiveSegment> index) {
+        return index.stream()
+                .map(ArchiveSegment::getMaxTime)
+                .max(Comparator.naturalOrder())
+                .map(maxTime -> maxTime.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1));
+    }
+
+    /**
+     * 在热数据分页结果之后续接 [from, to) 范围内的归档数据，归档数据均早于热数据
+     */
+    public <T> IPage<T> queryThrough(IPage<T> hotPage, String table, Class<T> type, Function<T, LocalDateTime> timeOf,
+                                     LocalDateTime from, LocalDateTime to, Predicate<T> filter) {
+        long hotTotal = hotPage.getTotal();
+        long offset = (hotPage.getCurrent() - 1) * hotPage.getSize();
+        long archiveOffset = Math.max(0L, offset - hotTotal);
+        long archiveLimit = hotPage.getSize() - hotPage.getRecords().size();
+        Page<T> archived = query(table, type, timeOf, from, to, filter, archiveOffset, archiveLimit);
+
+        List<T> records = new ArrayList<>(hotPage.getRecords());
+        records.addAll(archived.getRecords());
+        hotPage.setRecords(records);
+        hotPage.setTotal(hotTotal + archived.getTotal());
+        return hotPage;
+    }
+
+    private long readAndWrite(String table, LocalDateTime from, LocalDateTime to, List<ArchiveSegment> index) {
+        try {
+            if (LogPartitionService.LOGIN_LOG_TABLE.equals(table)) {
+                try (Cursor<SysLoginLog> cursor = loginLogMapper.selectCursorByTimeRange(from, to)) {
+                    return writeSegments(table, cursor, SysLoginLog::getLoginTime, index);
+                }
+            }
+            try (Cursor<SysOperationLog> cursor = operationLogMapper.selectCursorByTimeRange(from, to)) {
+                return writeSegments(table, cursor, SysOperationLog::getCreateTime, index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入归档段失败: " + table, e);
+        }
+    }
+
+    /**
+     * 按时间倒序分页查询 [from, to) 范围内的归档日志
+     */
+    public <T> Page<T> query(String table, Class<T> type, Function<T, LocalDateTime> timeOf,
+                             LocalDateTime from, LocalDateTime to, Predicate<T> filter,
+                             long offset, long limit) {
+        List<T> records = new ArrayList<>();
+        long[] matched = {0L};
+        scan(table, type, timeOf, from, to, filter, row -> {
+            if (matched[0] >= offset && records.size() < limit) {
+                records.add(row);
+            }
+            matched[0]++;
+        });
+
+        Page<T> page = new Page<>();
+        page.setRecords(records);
+        page.setTotal(matched[0]);
+        return page;
+    }
+
+    /**
+     * 按时间倒序逐条处理 [from, to) 范围内的归档日志，同一时刻只加载一个段
+     */
+    public <T> void scan(String table, Class<T> type, Function<T, LocalDateTime> timeOf,
+                         LocalDateTime from, LocalDateTime to, Predicate<T> filter, Consumer<T> consumer) {
+        List<ArchiveSegment> segments = index(table).stream()
+                .filter(segment -> segment.overlaps(from, to))
+                .sorted(Comparator.comparing(ArchiveSegment::getMaxTime).reversed())
+                .toList();
+
+        for (ArchiveSegment segment : segments) {
+            List<T> rows = readSegment(tableDir(table).resolve(segment.getFile()), type);
+            // 段内按时间正序写入，倒序遍历
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                T row = rows.get(i);
+                LocalDateTime time = timeOf.apply(row);
+                if ((from != null && time.isBefore(from)) || (to != null && !time.isBefore(to)) || !filter.test(row)) {
+                    continue;
+                }
+                consumer.accept(row);
+            }
+        }
+    }
+
+    private <T> long writeSegments(String table, Cursor<T> cursor, Function<T, LocalDateTime> timeOf,
+                                   List<ArchiveSegment> index) throws IOException {
+        int segmentRows = logArchiveProperties.getSegmentRows();
+        long total = 0;
+        SegmentWriter writer = null;
+        try {
+            for (T row : cursor) {
+                LocalDateTime time = timeOf.apply(row);
+                YearMonth bucket = YearMonth.from(time);
+                // 游标按时间正序，跨月或超过行数时切换到新段
+                if (writer == null || !writer.bucket.equals(bucket) || writer.segment.getRows() >= segmentRows) {
+                    if (writer != null) {
+                        index.add(writer.close());
+                    }
+                    writer = new SegmentWriter(table, bucket);
+                }
+                writer.append(JSON.toJSONString(row), time);
+                total++;
+            }
+            if (writer != null) {
+                index.add(writer.close());
+                writer = null;
+            }
+            return total;
+        } finally {
+            if (writer != null) {
+                writer.abort();
+            }
+        }
+    }
+
+    /**
+     * 段文件缺失或损坏时抛出异常，不能当作没有数据
+     */
+    private <T> List<T> readSegment(Path file, Class<T> type) {
+        List<T> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    rows.add(JSON.parseObject(line, type));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取归档段失败: " + file, e);
+        }
+        return rows;
+    }
+
+    /**
+     * 获取表的段索引，索引文件的修改时间或大小变化时重新加载
+     */
+    private List<ArchiveSegment> index(String table) {
+        Path file = tableDir(table).resolve(INDEX_FILE);
+        String stamp = stampOf(file);
+        List<ArchiveSegment> cached = indexes.get(table);
+        if (cached != null && stamp.equals(indexStamps.get(table))) {
+            return cached;
+        }
+        List<ArchiveSegment> index = loadIndex(table);
+        indexes.put(table, index);
+        indexStamps.put(table, stamp);
+        return index;
+    }
+
+    private static String stampOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file) : "";
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取归档索引失败: " + file, e);
+        }
+    }
+
+    private List<ArchiveSegment> loadIndex(String table) {
+        Path file = tableDir(table).resolve(INDEX_FILE);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            List<ArchiveSegment> index = JSON.parseObject(Files.readString(file), new TypeReference<List<ArchiveSegment>>() {});
+            return index == null ? List.of() : List.copyOf(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取归档索引失败: " + file, e);
+        }
+    }
+
+    /**
+     * 先写临时文件再替换，避免索引写一半
+     */
+    private void saveIndex(String table, List<ArchiveSegment> index) {
+        List<ArchiveSegment> sorted = index.stream().sorted(Comparator.comparing(ArchiveSegment::getMinTime)).toList();
+        Path dir = tableDir(table);
+        try {
+            Files.createDirectories(dir);
+            Path temp = dir.resolve(INDEX_FILE + ".tmp");
+            Files.writeString(temp, JSON.toJSONString(sorted));
+            Files.move(temp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入归档索引失败: " + dir, e);
+        }
+        indexes.put(table, sorted);
+        indexStamps.put(table, stampOf(dir.resolve(INDEX_FILE)));
+    }
+
+    private Path tableDir(String table) {
+        return Paths.get(logArchiveProperties.getDir(), table);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除归档段失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 单个段文件的写入器
+     */
+    private final class SegmentWriter {
+
+        private final YearMonth bucket;
+        private final Path file;
+        private final BufferedWriter writer;
+        private final ArchiveSegment segment = new ArchiveSegment();
+
+        private SegmentWriter(String table, YearMonth bucket) throws IOException {
+            this.bucket = bucket;
+            String name = bucket.format(BUCKET_FORMAT);
+            String relative = name + "/" + table + "-" + name + "-" + System.nanoTime() + ".ndjson.gz";
+            this.file = tableDir(table).resolve(relative);
+            Files.createDirectories(file.getParent());
+            this.writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024), StandardCharsets.UTF_8));
+            segment.setFile(relative);
+        }
+
+        private void append(String json, LocalDateTime time) throws IOException {
+            writer.write(json);
+            writer.newLine();
+            if (segment.getMinTime() == null) {
+                segment.setMinTime(time);
+            }
+            segment.setMaxTime(time);
+            segment.setRows(segment.getRows() + 1);
+        }
+
+        private ArchiveSegment close() throws IOException {
+            writer.close();
+            return segment;
+        }
+
+        private void abort() {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // 忽略
+            }
+            deleteQuietly(file);
+        }
+    }
+}
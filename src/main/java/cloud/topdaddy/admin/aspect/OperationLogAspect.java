@@ -1,11 +1,11 @@
 package cloud.topdaddy.admin.aspect;
 
+import cloud.topdaddy.admin.audit.AuditLogWriter;
+import cloud.topdaddy.admin.audit.BoundedJsonSerializer;
 import cloud.topdaddy.admin.entity.SysOperationLog;
-import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
 import cloud.topdaddy.admin.security.UserDetailsImpl;
 import cloud.topdaddy.admin.utils.IpUtil;
 import cn.hutool.core.util.IdUtil;
-import com.alibaba.fastjson2.JSON;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +14,7 @@ import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -36,10 +37,12 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class OperationLogAspect {
 
-    private final SysOperationLogMapper operationLogMapper;
+    private final AuditLogWriter auditLogWriter;
+    private final BoundedJsonSerializer jsonSerializer;
     
     private final ThreadLocal<Long> startTimeThreadLocal = new ThreadLocal<>();
     private final ThreadLocal<SysOperationLog> logThreadLocal = new ThreadLocal<>();
+    private final ThreadLocal<Object[]> argsThreadLocal = new ThreadLocal<>();
 
     /**
      * 操作日志注解
@@ -72,15 +75,10 @@ public class OperationLogAspect {
             log.setOperation(operationLog.value());
             log.setMethod(joinPoint.getSignature().getDeclaringTypeName() + "." + joinPoint.getSignature().getName());
             
-            // 获取请求参数
-            Object[] args = joinPoint.getArgs();
-            if (args != null && args.length > 0) {
-                try {
-                    log.setParams(JSON.toJSONString(args));
-                } catch (Exception e) {
-                    log.setParams("参数序列化失败");
-                }
-            }
+            // 只保存请求参数引用，由写入线程序列化
+            String[] names = joinPoint.getSignature() instanceof MethodSignature signature
+                    ? signature.getParameterNames() : null;
+            argsThreadLocal.set(jsonSerializer.auditableArgs(joinPoint.getArgs(), names));
             
             // 获取用户信息
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -140,19 +138,12 @@ public class OperationLogAspect {
                 operationLog.setErrorMsg(exception.getMessage());
             } else {
                 operationLog.setStatus(1);
-                if (result != null) {
-                    try {
-                        operationLog.setResult(JSON.toJSONString(result));
-                    } catch (Exception e) {
-                        operationLog.setResult("返回结果序列化失败");
-                    }
-                }
             }
             
             operationLog.setCreateTime(LocalDateTime.now());
             
             // 异步保存日志
-            saveLogAsync(operationLog);
+            saveLogAsync(operationLog, argsThreadLocal.get(), exception == null ? result : null);
             
         } catch (Exception e) {
             log.error("记录操作日志失败", e);
@@ -160,15 +151,16 @@ public class OperationLogAspect {
             // 清理ThreadLocal
             startTimeThreadLocal.remove();
             logThreadLocal.remove();
+            argsThreadLocal.remove();
         }
     }
 
     /**
-     * 异步保存日志
+     * 异步保存日志，仅入队，由写入线程批量落库
      */
-    private void saveLogAsync(SysOperationLog operationLog) {
+    private void saveLogAsync(SysOperationLog operationLog, Object[] args, Object result) {
         try {
-            operationLogMapper.insert(operationLog);
+            auditLogWriter.submit(operationLog, args, result);
         } catch (Exception e) {
             log.error("保存操作日志失败", e);
         }
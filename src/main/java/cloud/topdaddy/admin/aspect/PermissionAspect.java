@@ -1,10 +1,9 @@
 package cloud.topdaddy.admin.aspect;
 
 import cloud.topdaddy.admin.common.ResultCode;
-import cloud.topdaddy.admin.entity.SysPermission;
 import cloud.topdaddy.admin.exception.BusinessException;
+import cloud.topdaddy.admin.security.AuthorizationEngine;
 import cloud.topdaddy.admin.security.UserDetailsImpl;
-import cloud.topdaddy.admin.servcie.SysPermissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -14,9 +13,7 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 import java.lang.reflect.Method;
-import java.util.List;
 
 /**
  * 权限验证切面
@@ -29,7 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PermissionAspect {
 
-    private final SysPermissionService permissionService;
+    private final AuthorizationEngine authorizationEngine;
 
     @Around("@annotation(RequirePermission)")
     public Object checkPermission(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -74,17 +71,8 @@ public class PermissionAspect {
      */
     private boolean hasPermission(Long userId, String permissionCode) {
         try {
-            // 获取用户所有权限
-            List<SysPermission> userPermissions = permissionService.getPermissionsByUserId(userId);
-            
-            if (CollectionUtils.isEmpty(userPermissions)) {
-                return false;
-            }
-
-            // 检查是否包含所需权限
-            return userPermissions.stream()
-                    .anyMatch(permission -> permissionCode.equals(permission.getCode()));
-                    
+            // 基于内存权限图检查，不访问数据库
+            return authorizationEngine.hasPermission(userId, permissionCode);
         } catch (Exception e) {
             log.error("检查用户权限时发生异常，用户ID: {}, 权限编码: {}", userId, permissionCode, e);
             return false;
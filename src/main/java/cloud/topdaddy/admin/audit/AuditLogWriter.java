@@ -0,0 +1,248 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.config.AuditProperties;
+import cloud.topdaddy.admin.entity.SysLoginLog;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 审计日志异步写入器
+ * <p>
+ * 请求线程只负责入队，由独立的写入线程攒批后交给 {@link AuditSink} 输出。
+ * 队列满时按 {@link AuditProperties.OverflowPolicy} 处理，丢弃的日志计入统计。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+
+    private final AuditSink auditSink;
+    private final BoundedJsonSerializer jsonSerializer;
+    private final AuditProperties auditProperties;
+
+    private BlockingQueue<AuditRecord> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(auditProperties.getQueueCapacity());
+        running = true;
+        writerThread = new Thread(this::runLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写入剩余日志
+        List<AuditRecord> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += auditProperties.getBatchSize()) {
+            write(remaining.subList(from, Math.min(from + auditProperties.getBatchSize(), remaining.size())));
+        }
+    }
+
+    /**
+     * 提交操作日志
+     */
+    public void submit(SysOperationLog operationLog) {
+        if (operationLog.getCreateTime() == null) {
+            operationLog.setCreateTime(LocalDateTime.now());
+        }
+        enqueue(AuditRecord.of(operationLog));
+    }
+
+    /**
+     * 提交操作日志，参数和返回结果只保存引用，由写入线程限长序列化
+     */
+    public void submit(SysOperationLog operationLog, Object[] args, Object result) {
+        if (operationLog.getCreateTime() == null) {
+            operationLog.setCreateTime(LocalDateTime.now());
+        }
+        AuditRecord record = AuditRecord.of(operationLog);
+        record.setArgs(args);
+        record.setResult(result);
+        enqueue(record);
+    }
+
+    /**
+     * 提交登录日志
+     */
+    public void submitLoginLog(SysLoginLog loginLog) {
+        if (loginLog.getLoginTime() == null) {
+            loginLog.setLoginTime(LocalDateTime.now());
+        }
+        enqueue(AuditRecord.of(loginLog));
+    }
+
+    private void enqueue(AuditRecord record) {
+        submitted.increment();
+        switch (auditProperties.getOverflowPolicy()) {
+            case DROP_OLDEST -> offerDropOldest(record);
+            case SAMPLE -> offerSampled(record);
+            default -> offerBlocking(record);
+        }
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("sink", auditSink.name());
+        stats.put("policy", auditProperties.getOverflowPolicy());
+        stats.put("queueSize", queue.size());
+        stats.put("queueCapacity", auditProperties.getQueueCapacity());
+        stats.put("submitted", submitted.sum());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("sampledOut", sampledOut.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        return stats;
+    }
+
+    private void offerBlocking(AuditRecord record) {
+        try {
+            if (!queue.offer(record, auditProperties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                dropped.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private void offerDropOldest(AuditRecord record) {
+        while (!queue.offer(record)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void offerSampled(AuditRecord record) {
+        int capacity = auditProperties.getQueueCapacity();
+        if (record.isSuccess() && queue.size() >= capacity * auditProperties.getSampleThreshold()
+                && ThreadLocalRandom.current().nextDouble() >= auditProperties.getSampleRate()) {
+            sampledOut.increment();
+            return;
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * 写入线程主循环：取到第一条后在等待时间内攒批
+     */
+    private void runLoop() {
+        int batchSize = auditProperties.getBatchSize();
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditRecord first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(auditProperties.getLingerMs());
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batch.forEach(this::serializeCaptured);
+            auditSink.write(batch);
+            written.add(batch.size());
+            batches.increment();
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("批量保存审计日志失败，数量: {}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 在写入线程序列化请求参数和返回结果，失败时只影响当前字段
+     */
+    private void serializeCaptured(AuditRecord record) {
+        SysOperationLog operationLog = record.getOperationLog();
+        if (operationLog == null) {
+            return;
+        }
+        if (record.getArgs() != null) {
+            try {
+                operationLog.setParams(jsonSerializer.serialize(record.getArgs(), auditProperties.getParamsMaxBytes()));
+            } catch (Exception e) {
+                operationLog.setParams("参数序列化失败");
+            }
+            record.setArgs(null);
+        }
+        if (record.getResult() != null) {
+            try {
+                operationLog.setResult(jsonSerializer.serialize(record.getResult(), auditProperties.getResultMaxBytes()));
+            } catch (Exception e) {
+                operationLog.setResult("返回结果序列化失败");
+            }
+            record.setResult(null);
+        }
+    }
+}
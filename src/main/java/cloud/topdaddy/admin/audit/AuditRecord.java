@@ -0,0 +1,64 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.entity.SysLoginLog;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import com.alibaba.fastjson2.annotation.JSONField;
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 审计记录
+ * <p>
+ * 写入队列和各个 {@link AuditSink} 之间传递的统一载体，同时只有一个日志字段非空。
+ *
+ * @author topdaddy
+ */
+@Data
+public class AuditRecord implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 操作日志
+     */
+    private SysOperationLog operationLog;
+
+    /**
+     * 登录日志
+     */
+    private SysLoginLog loginLog;
+
+    /**
+     * 待序列化的请求参数，仅持有引用，由写入线程序列化到操作日志
+     */
+    @JSONField(serialize = false, deserialize = false)
+    private transient Object[] args;
+
+    /**
+     * 待序列化的返回结果
+     */
+    @JSONField(serialize = false, deserialize = false)
+    private transient Object result;
+
+    public static AuditRecord of(SysOperationLog operationLog) {
+        AuditRecord record = new AuditRecord();
+        record.setOperationLog(operationLog);
+        return record;
+    }
+
+    public static AuditRecord of(SysLoginLog loginLog) {
+        AuditRecord record = new AuditRecord();
+        record.setLoginLog(loginLog);
+        return record;
+    }
+
+    /**
+     * 是否为成功的操作，用于采样
+     */
+    public boolean isSuccess() {
+        Integer status = operationLog != null ? operationLog.getStatus() : loginLog != null ? loginLog.getStatus() : null;
+        return status == null || status == 1;
+    }
+}
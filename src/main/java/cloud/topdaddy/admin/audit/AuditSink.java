@@ -0,0 +1,23 @@
+package cloud.topdaddy.admin.audit;
+
+import java.util.List;
+
+/**
+ * 审计日志输出端
+ * <p>
+ * 由 {@link AuditLogWriter} 的写入线程批量调用，写入失败时抛出异常，由调用方决定重试或转存。
+ *
+ * @author topdaddy
+ */
+public interface AuditSink {
+
+    /**
+     * 批量写入审计记录
+     */
+    void write(List<AuditRecord> records);
+
+    /**
+     * 输出端名称
+     */
+    String name();
+}
@@ -0,0 +1,52 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.config.AuditProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 暂存段回放器，数据库恢复后把本地暂存的审计记录补写回数据库
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditSpoolReplayer {
+
+    private final SpoolAuditSink spoolAuditSink;
+    private final JdbcAuditSink jdbcAuditSink;
+    private final FailoverAuditSink failoverAuditSink;
+    private final AuditProperties auditProperties;
+
+    private final LongAdder replayed = new LongAdder();
+
+    /**
+     * 回放全部暂存记录，失败时保留进度等待下一轮
+     */
+    public synchronized void replay() {
+        if (!failoverAuditSink.isJdbcAvailable()) {
+            return;
+        }
+        try {
+            if (!spoolAuditSink.hasPending()) {
+                return;
+            }
+            int count = spoolAuditSink.drain(jdbcAuditSink::write, auditProperties.getBatchSize());
+            replayed.add(count);
+            log.info("回放审计暂存记录完成，数量: {}", count);
+        } catch (Exception e) {
+            failoverAuditSink.suspendJdbc();
+            log.error("回放审计暂存记录失败", e);
+        }
+    }
+
+    /**
+     * 已回放的记录数
+     */
+    public long getReplayedCount() {
+        return replayed.sum();
+    }
+}
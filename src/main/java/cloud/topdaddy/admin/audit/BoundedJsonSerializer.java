@@ -0,0 +1,165 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.config.AuditProperties;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.PropertyPreFilter;
+import com.alibaba.fastjson2.filter.ValueFilter;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 限长JSON序列化器
+ * <p>
+ * 在fastjson2遍历字段的过程中检查已写入字节数，超出预算即停止并截断，
+ * 敏感字段在写入时直接替换为掩码，避免大对象整页序列化和明文密码落库；
+ * 直接以字符串等简单类型传入的敏感参数按方法参数名在采集时替换为掩码。
+ *
+ * @author topdaddy
+ */
+@Component
+@RequiredArgsConstructor
+public class BoundedJsonSerializer {
+
+    private final AuditProperties auditProperties;
+
+    private static final String MASK = "******";
+    private static final String TRUNCATED = "...(truncated)";
+
+    private volatile Set<String> maskedFields;
+
+    /**
+     * 序列化对象，超过 {@code maxBytes} 字节时截断
+     */
+    public String serialize(Object value, int maxBytes) {
+        if (value == null) {
+            return null;
+        }
+        BudgetFilter filter = new BudgetFilter(maxBytes, maskedFields());
+        try (JSONWriter writer = JSONWriter.ofUTF8()) {
+            filter.writer = writer;
+            writer.getContext().configFilter(filter);
+            try {
+                writer.writeAny(value);
+            } catch (RuntimeException e) {
+                // fastjson2可能包装过滤器抛出的异常，以标记为准
+                if (!filter.exceeded) {
+                    throw e;
+                }
+                return truncate(writer.getBytes(), maxBytes);
+            }
+            byte[] bytes = writer.getBytes();
+            return bytes.length > maxBytes ? truncate(bytes, maxBytes) : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 过滤掉不应记录的参数，如请求、响应、上传文件和校验结果；参数名为敏感字段的参数替换为掩码
+     *
+     * @param args  方法参数
+     * @param names 方法参数名，无法获取时为null
+     */
+    public Object[] auditableArgs(Object[] args, String[] names) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        Set<String> masked = maskedFields();
+        Object[] result = new Object[args.length];
+        int count = 0;
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse
+                    || arg instanceof InputStreamSource || arg instanceof Errors) {
+                continue;
+            }
+            boolean sensitive = arg != null && names != null && i < names.length && names[i] != null
+                    && masked.contains(names[i].toLowerCase(Locale.ROOT));
+            result[count++] = sensitive ? MASK : arg;
+        }
+        if (count == 0) {
+            return null;
+        }
+        return count == args.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private Set<String> maskedFields() {
+        Set<String> fields = maskedFields;
+        if (fields == null) {
+            fields = auditProperties.getMaskedFields().stream()
+                    .map(name -> name.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            maskedFields = fields;
+        }
+        return fields;
+    }
+
+    private static String truncate(byte[] bytes, int maxBytes) {
+        int length = Math.min(bytes.length, maxBytes);
+        // 不截断在多字节字符中间
+        while (length > 0 && length < bytes.length && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8) + TRUNCATED;
+    }
+
+    /**
+     * 每次序列化独立的过滤器，持有当前写入器以检查字节数
+     */
+    private static final class BudgetFilter implements PropertyPreFilter, ValueFilter {
+
+        private final int maxBytes;
+        private final Set<String> maskedFields;
+        private JSONWriter writer;
+        private boolean exceeded;
+
+        private BudgetFilter(int maxBytes, Set<String> maskedFields) {
+            this.maxBytes = maxBytes;
+            this.maskedFields = maskedFields;
+        }
+
+        @Override
+        public boolean process(JSONWriter jsonWriter, Object source, String name) {
+            checkBudget();
+            return true;
+        }
+
+        @Override
+        public Object apply(Object object, String name, Object value) {
+            checkBudget();
+            if (name != null && value != null && maskedFields.contains(name.toLowerCase(Locale.ROOT))) {
+                return MASK;
+            }
+            if (value instanceof String text && text.length() > maxBytes) {
+                return text.substring(0, maxBytes);
+            }
+            return value;
+        }
+
+        private void checkBudget() {
+            if (writer.size() > maxBytes) {
+                exceeded = true;
+                throw BudgetExceededException.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * 超出预算时中断序列化，不填充堆栈
+     */
+    private static final class BudgetExceededException extends RuntimeException {
+
+        private static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
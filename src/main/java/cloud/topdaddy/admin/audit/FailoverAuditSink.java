@@ -0,0 +1,76 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.config.AuditProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 故障转移输出端
+ * <p>
+ * 优先写入数据库，失败后转存到本地暂存段，并在冷却时间内直接写暂存段，
+ * 避免每批都等待数据库超时。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Primary
+@Component
+@RequiredArgsConstructor
+public class FailoverAuditSink implements AuditSink {
+
+    private final JdbcAuditSink jdbcAuditSink;
+    private final SpoolAuditSink spoolAuditSink;
+    private final AuditProperties auditProperties;
+
+    private final LongAdder spooled = new LongAdder();
+
+    /**
+     * 数据库恢复写入的时间点
+     */
+    private volatile long jdbcRetryAt;
+
+    @Override
+    public void write(List<AuditRecord> records) {
+        if (isJdbcAvailable()) {
+            try {
+                jdbcAuditSink.write(records);
+                return;
+            } catch (Exception e) {
+                suspendJdbc();
+                log.warn("写入数据库失败，转存到本地暂存段，数量: {}", records.size(), e);
+            }
+        }
+        spoolAuditSink.write(records);
+        spooled.add(records.size());
+    }
+
+    @Override
+    public String name() {
+        return "failover";
+    }
+
+    /**
+     * 数据库是否处于可写状态
+     */
+    public boolean isJdbcAvailable() {
+        return System.currentTimeMillis() >= jdbcRetryAt;
+    }
+
+    /**
+     * 暂停写入数据库直到冷却结束
+     */
+    public void suspendJdbc() {
+        jdbcRetryAt = System.currentTimeMillis() + auditProperties.getFailoverCooldownMs();
+    }
+
+    /**
+     * 转存到暂存段的记录数
+     */
+    public long getSpooledCount() {
+        return spooled.sum();
+    }
+}
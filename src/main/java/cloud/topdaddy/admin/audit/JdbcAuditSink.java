@@ -0,0 +1,65 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.entity.SysLoginLog;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import cloud.topdaddy.admin.mapper.SysLoginLogMapper;
+import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import cloud.topdaddy.admin.servcie.LogStatsService;
+import cloud.topdaddy.admin.servcie.OperationRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库输出端，按日志类型分别执行多行INSERT，同一批在一个事务内写入，
+ * 失败时整批回滚后转存不会重复；提交成功后再累加日志统计计数和操作日志小时汇总
+ *
+ * @author topdaddy
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcAuditSink implements AuditSink {
+
+    private final SysOperationLogMapper operationLogMapper;
+    private final SysLoginLogMapper loginLogMapper;
+    private final LogStatsService logStatsService;
+    private final OperationRollupService operationRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void write(List<AuditRecord> records) {
+        List<SysOperationLog> operationLogs = new ArrayList<>(records.size());
+        List<SysLoginLog> loginLogs = new ArrayList<>();
+        for (AuditRecord record : records) {
+            if (record.getOperationLog() != null) {
+                operationLogs.add(record.getOperationLog());
+            } else if (record.getLoginLog() != null) {
+                loginLogs.add(record.getLoginLog());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!operationLogs.isEmpty()) {
+                operationLogMapper.batchInsert(operationLogs);
+            }
+            if (!loginLogs.isEmpty()) {
+                loginLogMapper.batchInsert(loginLogs);
+            }
+        });
+
+        for (SysOperationLog operationLog : operationLogs) {
+            logStatsService.record(LogPartitionService.OPERATION_LOG_TABLE,
+                    operationLog.getCreateTime(), operationLog.getStatus());
+            operationRollupService.record(operationLog);
+        }
+        loginLogs.forEach(loginLog -> logStatsService.record(LogPartitionService.LOGIN_LOG_TABLE,
+                loginLog.getLoginTime(), loginLog.getStatus()));
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+}
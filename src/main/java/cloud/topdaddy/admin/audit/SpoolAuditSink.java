@@ -0,0 +1,245 @@
+package cloud.topdaddy.admin.audit;
+
+import cloud.topdaddy.admin.config.AuditProperties;
+import com.alibaba.fastjson2.JSON;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 本地磁盘暂存输出端
+ * <p>
+ * 以内存映射的定长段文件顺序追加，段文件格式为：8字节已回放偏移量，
+ * 之后为若干条 [4字节长度][JSON] 记录，长度为0表示段结束。
+ * 数据库不可用时由 {@link FailoverAuditSink} 转存到此处，再由 {@link AuditSpoolReplayer} 回放。
+ * 无法解析的记录转存到同名的 {@code .corrupt} 隔离文件，记录边界损坏的段整体改名隔离，不阻塞后续回放。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpoolAuditSink implements AuditSink {
+
+    private final AuditProperties auditProperties;
+
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final String DAMAGED_SUFFIX = ".damaged";
+
+    private Path directory;
+    private long nextSequence;
+    private Path activePath;
+    private MappedByteBuffer active;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(auditProperties.getSpoolDir());
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        nextSequence = segments.isEmpty() ? 1 : sequenceOf(segments.get(segments.size() - 1)) + 1;
+        if (!segments.isEmpty()) {
+            log.warn("发现未回放的审计暂存段: {}", segments.size());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.force();
+            active = null;
+            activePath = null;
+        }
+    }
+
+    @Override
+    public synchronized void write(List<AuditRecord> records) {
+        try {
+            for (AuditRecord record : records) {
+                byte[] bytes = JSON.toJSONBytes(record);
+                if (active == null || active.remaining() < Integer.BYTES * 2 + bytes.length) {
+                    roll(bytes.length);
+                }
+                active.putInt(bytes.length);
+                active.put(bytes);
+            }
+            if (auditProperties.isSpoolForce()) {
+                active.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入审计暂存段失败", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "spool";
+    }
+
+    /**
+     * 是否有待回放的记录
+     */
+    public synchronized boolean hasPending() throws IOException {
+        if (active != null && active.position() > HEADER_SIZE) {
+            return true;
+        }
+        List<Path> segments = listSegments();
+        return segments.size() > (activePath != null ? 1 : 0);
+    }
+
+    /**
+     * 按写入顺序回放全部暂存记录，每批成功后记录偏移量，回放完的段文件删除。
+     * 目标写入失败时抛出异常并保留剩余记录。
+     */
+    public int drain(Consumer<List<AuditRecord>> target, int batchSize) throws IOException {
+        List<Path> segments;
+        synchronized (this) {
+            // 封存当前段，新的写入进入下一段
+            if (active != null && active.position() > HEADER_SIZE) {
+                close();
+            }
+            segments = listSegments();
+            if (activePath != null) {
+                segments.remove(activePath);
+            }
+        }
+
+        int replayed = 0;
+        for (Path segment : segments) {
+            Drained drained = drainSegment(segment, target, batchSize);
+            replayed += drained.replayed();
+            if (drained.damaged()) {
+                // 头部偏移量停在损坏位置，保留文件供人工排查
+                Path quarantined = segment.resolveSibling(segment.getFileName() + DAMAGED_SUFFIX);
+                Files.move(segment, quarantined, StandardCopyOption.REPLACE_EXISTING);
+                log.error("审计暂存段记录边界损坏，已隔离: {}", quarantined);
+            } else {
+                Files.deleteIfExists(segment);
+            }
+        }
+        return replayed;
+    }
+
+    private Drained drainSegment(Path segment, Consumer<List<AuditRecord>> target, int batchSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            long offset = buffer.getLong(0);
+            buffer.position((int) Math.max(offset, HEADER_SIZE));
+
+            int replayed = 0;
+            boolean damaged = false;
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            while (buffer.remaining() >= Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    // 回退到长度字段，偏移量指向损坏位置
+                    buffer.position(buffer.position() - Integer.BYTES);
+                    damaged = true;
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                AuditRecord record;
+                try {
+                    record = JSON.parseObject(bytes, AuditRecord.class);
+                } catch (RuntimeException e) {
+                    quarantine(segment, bytes, e);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    target.accept(batch);
+                    replayed += batch.size();
+                    buffer.putLong(0, buffer.position());
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                target.accept(batch);
+                replayed += batch.size();
+            }
+            buffer.putLong(0, buffer.position());
+            return new Drained(replayed, damaged);
+        }
+    }
+
+    /**
+     * 将无法解析的记录按原格式追加到隔离文件
+     */
+    private void quarantine(Path segment, byte[] bytes, RuntimeException cause) throws IOException {
+        Path file = segment.resolveSibling(segment.getFileName() + CORRUPT_SUFFIX);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+        frame.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+        log.error("审计暂存记录无法解析，已隔离到: {}", file, cause);
+    }
+
+    /**
+     * 单个段的回放结果
+     */
+    private record Drained(int replayed, boolean damaged) {
+    }
+
+    /**
+     * 切换到新的段文件
+     */
+    private void roll(int recordLength) throws IOException {
+        close();
+        long size = Math.max(auditProperties.getSpoolSegmentSize(), HEADER_SIZE + Integer.BYTES * 2L + recordLength);
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        active.putLong(0, HEADER_SIZE);
+        active.position(HEADER_SIZE);
+        activePath = path;
+        log.info("创建审计暂存段: {}", path);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        if (path == null) {
+            return 0L;
+        }
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,64 @@
+package cloud.topdaddy.admin.common;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 基于Redis的跨节点互斥锁
+ * <p>
+ * 加锁时写入本次持有者的随机令牌，续期和释放都先比较令牌，
+ * 锁过期后被其他节点取得时，原持有者不会误删或误续期他人的锁。
+ *
+ * @author topdaddy
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLock {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    /**
+     * 尝试加锁，成功时返回持有者令牌，锁已被占用时返回 null
+     */
+    public String tryLock(String key, Duration ttl) {
+        String token = IdUtil.fastSimpleUUID();
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        return Boolean.TRUE.equals(locked) ? token : null;
+    }
+
+    /**
+     * 延长锁的有效期，锁已不属于该令牌时返回 false
+     */
+    public boolean renew(String key, String token, Duration ttl) {
+        Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed > 0;
+    }
+
+    /**
+     * 释放锁，只删除仍属于该令牌的锁
+     */
+    public void unlock(String key, String token) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+
+    /**
+     * 锁是否被任意节点持有
+     */
+    public boolean isLocked(String key) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
+    }
+}
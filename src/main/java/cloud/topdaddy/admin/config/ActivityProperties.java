@@ -0,0 +1,31 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户活跃记录配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.activity")
+public class ActivityProperties {
+
+    /**
+     * 刷写间隔（毫秒）
+     */
+    private long flushInterval = 5000L;
+
+    /**
+     * 缓冲区最大条目数，超出时通知后台线程提前刷写，积压时丢弃新会话的活跃记录和最早的登录记录
+     */
+    private int maxPending = 10000;
+
+    /**
+     * 单条UPDATE语句包含的最大用户数
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,105 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * 审计日志配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.audit")
+public class AuditProperties {
+
+    /**
+     * 队列容量
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单次批量写入的最大条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 攒批等待时间（毫秒）
+     */
+    private long lingerMs = 200L;
+
+    /**
+     * 队列满时的处理策略
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * BLOCK策略下的最长等待时间（毫秒），超时后丢弃
+     */
+    private long blockTimeoutMs = 50L;
+
+    /**
+     * SAMPLE策略下队列使用率超过该值后开始采样
+     */
+    private double sampleThreshold = 0.8;
+
+    /**
+     * SAMPLE策略下成功日志的保留比例，失败日志始终保留
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * 本地暂存段目录
+     */
+    private String spoolDir = "logs/audit-spool";
+
+    /**
+     * 单个暂存段文件大小（字节）
+     */
+    private long spoolSegmentSize = 64L * 1024 * 1024;
+
+    /**
+     * 每批写入暂存段后是否立即刷盘
+     */
+    private boolean spoolForce = false;
+
+    /**
+     * 数据库写入失败后改写暂存段的冷却时间（毫秒）
+     */
+    private long failoverCooldownMs = 10000L;
+
+    /**
+     * 请求参数序列化的最大字节数
+     */
+    private int paramsMaxBytes = 2048;
+
+    /**
+     * 返回结果序列化的最大字节数
+     */
+    private int resultMaxBytes = 2048;
+
+    /**
+     * 序列化时替换为掩码的字段名，忽略大小写
+     */
+    private List<String> maskedFields = List.of("password", "oldPassword", "newPassword", "confirmPassword", "captcha");
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 阻塞调用线程直到有空位或超时
+         */
+        BLOCK,
+        /**
+         * 丢弃最早的日志
+         */
+        DROP_OLDEST,
+        /**
+         * 高水位后按比例采样成功日志
+         */
+        SAMPLE
+    }
+}
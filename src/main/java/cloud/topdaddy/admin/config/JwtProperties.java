@@ -38,4 +38,49 @@ public class JwtProperties {
      * Token请求头名称
      */
     private String tokenHeader = "Authorization";
+
+    /**
+     * 是否根据令牌声明和本地授权快照重建认证信息，关闭时每次请求都查询数据库
+     */
+    private boolean statelessPrincipal = true;
+
+    /**
+     * 授权快照缓存的最大用户数
+     */
+    private int principalCacheSize = 10000;
+
+    /**
+     * 已验签令牌缓存的最大条目数
+     */
+    private int verifiedCacheSize = 50000;
+
+    /**
+     * 本地黑名单过滤器的预期条目数
+     */
+    private long blacklistExpectedInsertions = 100000L;
+
+    /**
+     * 本地黑名单过滤器的误判率
+     */
+    private double blacklistFalsePositiveRate = 0.001;
+
+    /**
+     * 本地会话代数缓存的最大用户数
+     */
+    private int generationCacheSize = 10000;
+
+    /**
+     * 本地会话代数的有效期（毫秒），用于弥补丢失的同步通知
+     */
+    private long generationCacheTtl = 60000L;
+
+    /**
+     * 同一会话两次记录活跃时间的最小间隔（毫秒）
+     */
+    private long sessionTouchInterval = 60000L;
+
+    /**
+     * 本地记录会话最近活跃时间的缓存容量，应不小于单节点的在线会话数
+     */
+    private int sessionTouchCacheSize = 50000;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志归档配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.log-archive")
+public class LogArchiveProperties {
+
+    /**
+     * 清理过期日志前是否先归档
+     */
+    private boolean enabled = true;
+
+    /**
+     * 归档目录，多节点部署时必须是各节点共享的存储
+     */
+    private String dir = "logs/archive";
+
+    /**
+     * 单个归档段的最大行数
+     */
+    private int segmentRows = 50000;
+}
@@ -0,0 +1,31 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志分区配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.log-partition")
+public class LogPartitionProperties {
+
+    /**
+     * 预先创建的未来月份数
+     */
+    private int futureMonths = 3;
+
+    /**
+     * 操作日志保留天数，整个分区都早于该时间后才删除
+     */
+    private int operationLogRetentionDays = 30;
+
+    /**
+     * 登录日志保留天数
+     */
+    private int loginLogRetentionDays = 30;
+}
@@ -0,0 +1,36 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志统计计数器配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.log-stats")
+public class LogStatsProperties {
+
+    /**
+     * 本地计数刷写到Redis的间隔（毫秒）
+     */
+    private long flushInterval = 1000L;
+
+    /**
+     * 近两日计数与数据库核对的间隔（毫秒）
+     */
+    private long reconcileInterval = 600000L;
+
+    /**
+     * 日期结束多久后视为已封闭（毫秒），需大于刷写间隔和审计写入延迟，只有已封闭的日期参与核对
+     */
+    private long closeGrace = 300000L;
+
+    /**
+     * 按日计数在Redis中的保留天数
+     */
+    private int dayRetentionDays = 40;
+}
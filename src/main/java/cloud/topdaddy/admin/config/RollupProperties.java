@@ -0,0 +1,36 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志小时汇总配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.rollup")
+public class RollupProperties {
+
+    /**
+     * 汇总数据刷写间隔（毫秒）
+     */
+    private long flushInterval = 60000L;
+
+    /**
+     * 汇总数据保留天数
+     */
+    private int retentionDays = 90;
+
+    /**
+     * 耗时统计查询的最大时间窗口（小时）
+     */
+    private int maxWindowHours = 168;
+
+    /**
+     * 节点标识，为空时使用主机名；每个节点只更新自己的汇总行
+     */
+    private String node;
+}
@@ -1,6 +1,12 @@
 package cloud.topdaddy.admin.config;
 
+import cloud.topdaddy.admin.audit.AuditSpoolReplayer;
+import cloud.topdaddy.admin.security.TokenBlacklist;
 import cloud.topdaddy.admin.servcie.CacheService;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import cloud.topdaddy.admin.servcie.LogStatsService;
+import cloud.topdaddy.admin.servcie.OperationRollupService;
+import cloud.topdaddy.admin.servcie.RbacEpochService;
 import cloud.topdaddy.admin.servcie.SysLoginLogService;
 import cloud.topdaddy.admin.servcie.SysOperationLogService;
 import lombok.RequiredArgsConstructor;
@@ -25,15 +31,35 @@ public class ScheduleConfig {
     private final SysOperationLogService operationLogService;
     private final SysLoginLogService loginLogService;
     private final CacheService cacheService;
+    private final RbacEpochService rbacEpochService;
+    private final TokenBlacklist tokenBlacklist;
+    private final AuditSpoolReplayer auditSpoolReplayer;
+    private final LogPartitionService logPartitionService;
+    private final LogPartitionProperties logPartitionProperties;
+    private final LogStatsService logStatsService;
+    private final OperationRollupService operationRollupService;
+    private final RollupProperties rollupProperties;
 
     /**
-     * 每天凌晨2点清理过期操作日志（保留30天）
+     * 每天凌晨1点30分预建未来的日志分区
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void createLogPartitions() {
+        try {
+            logPartitionService.ensureFuturePartitions();
+        } catch (Exception e) {
+            log.error("预建日志分区失败", e);
+        }
+    }
+
+    /**
+     * 每天凌晨2点清理过期操作日志，已分区时按分区删除
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void cleanExpiredOperationLogs() {
         try {
             log.info("开始清理过期操作日志");
-            operationLogService.cleanExpiredLogs(30);
+            operationLogService.cleanExpiredLogs(logPartitionProperties.getOperationLogRetentionDays());
             log.info("清理过期操作日志完成");
         } catch (Exception e) {
             log.error("清理过期操作日志失败", e);
@@ -41,19 +67,55 @@ public class ScheduleConfig {
     }
 
     /**
-     * 每天凌晨2点30分清理过期登录日志（保留30天）
+     * 每天凌晨2点30分清理过期登录日志，已分区时按分区删除
      */
     @Scheduled(cron = "0 30 2 * * ?")
     public void cleanExpiredLoginLogs() {
         try {
             log.info("开始清理过期登录日志");
-            loginLogService.cleanLogs(30);
+            loginLogService.cleanLogs(logPartitionProperties.getLoginLogRetentionDays());
             log.info("清理过期登录日志完成");
         } catch (Exception e) {
             log.error("清理过期登录日志失败", e);
         }
     }
 
+    /**
+     * 定期用数据库中近两日的日志数量修正统计计数
+     */
+    @Scheduled(fixedDelayString = "${rbac.log-stats.reconcile-interval:600000}")
+    public void reconcileRecentLogStats() {
+        try {
+            logStatsService.reconcileRecent();
+        } catch (Exception e) {
+            log.error("核对近两日日志计数失败", e);
+        }
+    }
+
+    /**
+     * 每天凌晨3点在日志清理之后修正日志总数计数
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void reconcileLogTotals() {
+        try {
+            logStatsService.reconcileTotals();
+        } catch (Exception e) {
+            log.error("核对日志总数计数失败", e);
+        }
+    }
+
+    /**
+     * 每天凌晨3点30分清理过期的操作日志汇总
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void cleanExpiredRollups() {
+        try {
+            operationRollupService.cleanExpired(rollupProperties.getRetentionDays());
+        } catch (Exception e) {
+            log.error("清理操作日志汇总失败", e);
+        }
+    }
+
     /**
      * 每小时清理过期缓存
      */
@@ -68,6 +130,38 @@ public class ScheduleConfig {
         }
     }
 
+    /**
+     * 定期核对权限版本号，弥补丢失的变更通知
+     */
+    @Scheduled(fixedDelayString = "${rbac.epoch.reconcile-interval:30000}")
+    public void reconcileRbacEpoch() {
+        try {
+            rbacEpochService.reconcile();
+        } catch (Exception e) {
+            log.error("核对权限版本号失败", e);
+        }
+    }
+
+    /**
+     * 定期从Redis重建本地令牌黑名单，淘汰已过期的条目
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist-reconcile-interval:300000}")
+    public void reconcileTokenBlacklist() {
+        try {
+            tokenBlacklist.reconcile();
+        } catch (Exception e) {
+            log.error("同步令牌黑名单失败", e);
+        }
+    }
+
+    /**
+     * 定期把本地暂存的审计日志回放到数据库
+     */
+    @Scheduled(fixedDelayString = "${rbac.audit.replay-interval:30000}")
+    public void replayAuditSpool() {
+        auditSpoolReplayer.replay();
+    }
+
     /**
      * 每天凌晨1点执行垃圾回收
      */
@@ -0,0 +1,36 @@
+package cloud.topdaddy.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户批量导入配置属性
+ *
+ * @author topdaddy
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rbac.user-import")
+public class UserImportProperties {
+
+    /**
+     * 单条INSERT语句包含的最大用户数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 密码加密线程数，0表示使用CPU核数
+     */
+    private int hashThreads = 0;
+
+    /**
+     * 每个任务保留的最大错误行数，超出后只计数
+     */
+    private int maxErrors = 10000;
+
+    /**
+     * 已结束任务的保留时间（毫秒）
+     */
+    private long jobRetention = 3600000L;
+}
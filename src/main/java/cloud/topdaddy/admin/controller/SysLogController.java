@@ -1,8 +1,13 @@
 package cloud.topdaddy.admin.controller;
 
+import cloud.topdaddy.admin.audit.AuditLogWriter;
 import cloud.topdaddy.admin.common.Result;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.LatencyStats;
 import cloud.topdaddy.admin.entity.SysLoginLog;
 import cloud.topdaddy.admin.entity.SysOperationLog;
+import cloud.topdaddy.admin.servcie.LogExportService;
+import cloud.topdaddy.admin.servcie.OperationRollupService;
 import cloud.topdaddy.admin.servcie.SysLoginLogService;
 import cloud.topdaddy.admin.servcie.SysOperationLogService;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -11,8 +16,16 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 日志管理控制器
@@ -28,6 +41,9 @@ public class SysLogController {
 
     private final SysOperationLogService operationLogService;
     private final SysLoginLogService loginLogService;
+    private final AuditLogWriter auditLogWriter;
+    private final LogExportService logExportService;
+    private final OperationRollupService operationRollupService;
 
     @GetMapping("/operation/page")
     @Operation(summary = "分页查询操作日志")
@@ -46,6 +62,70 @@ public class SysLogController {
         return Result.success(page);
     }
 
+    @GetMapping("/operation/cursor")
+    @Operation(summary = "游标查询操作日志")
+    @PreAuthorize("hasAuthority('log:operation:list')")
+    public Result<CursorPage<SysOperationLog>> listOperationLogs(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "用户名") @RequestParam(required = false) String username,
+            @Parameter(description = "开始时间") @RequestParam(required = false) String startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime,
+            @Parameter(description = "是否返回估算总数") @RequestParam(defaultValue = "false") boolean withTotal) {
+        return Result.success(operationLogService.listOperationLogs(
+            cursor, Math.min(Math.max(size, 1), 100), username, startTime, endTime, withTotal));
+    }
+
+    @GetMapping("/operation/export")
+    @Operation(summary = "流式导出操作日志")
+    @PreAuthorize("hasAuthority('log:operation:export')")
+    public ResponseEntity<StreamingResponseBody> exportOperationLogs(
+            @Parameter(description = "导出格式：csv/ndjson") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "操作模块") @RequestParam(required = false) String module,
+            @Parameter(description = "操作类型") @RequestParam(required = false) String type,
+            @Parameter(description = "用户名") @RequestParam(required = false) String username,
+            @Parameter(description = "开始时间") @RequestParam(required = false) String startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime) {
+        LogExportService.Format exportFormat = LogExportService.Format.of(format);
+        return exportResponse("operation-log", exportFormat, gzip, out -> logExportService.exportOperationLogs(
+            out, exportFormat, module, type, username, startTime, endTime));
+    }
+
+    @GetMapping("/operation/writer-stats")
+    @Operation(summary = "获取操作日志写入统计")
+    @PreAuthorize("hasAuthority('log:operation:list')")
+    public Result<Map<String, Object>> getWriterStats() {
+        return Result.success(auditLogWriter.getStats());
+    }
+
+    @GetMapping("/operation/latency")
+    @Operation(summary = "按接口统计耗时分位数")
+    @PreAuthorize("hasAuthority('log:operation:list')")
+    public Result<List<LatencyStats>> getLatencyStats(
+            @Parameter(description = "统计最近的小时数") @RequestParam(defaultValue = "24") Integer hours,
+            @Parameter(description = "用户ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "请求方法") @RequestParam(required = false) String method,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(operationRollupService.getLatencyStats(
+            hours, userId, method, Math.min(Math.max(limit, 1), 200)));
+    }
+
+    @PostMapping("/operation/compress-legacy")
+    @Operation(summary = "压缩历史操作日志")
+    @PreAuthorize("hasAuthority('log:operation:clean')")
+    public Result<Map<String, Object>> compressLegacyOperationLogs(
+            @Parameter(description = "每批处理数量") @RequestParam(defaultValue = "500") Integer batchSize) {
+        return Result.success(operationLogService.compressLegacyLogs(batchSize));
+    }
+
+    @GetMapping("/operation/compress-legacy")
+    @Operation(summary = "查询历史操作日志压缩进度")
+    @PreAuthorize("hasAuthority('log:operation:clean')")
+    public Result<Map<String, Object>> getCompressProgress() {
+        return Result.success(operationLogService.getCompressProgress());
+    }
+
     @GetMapping("/login/page")
     @Operation(summary = "分页查询登录日志")
     @PreAuthorize("hasAuthority('log:login:list')")
@@ -62,6 +142,36 @@ public class SysLogController {
         return Result.success(page);
     }
 
+    @GetMapping("/login/cursor")
+    @Operation(summary = "游标查询登录日志")
+    @PreAuthorize("hasAuthority('log:login:list')")
+    public Result<CursorPage<SysLoginLog>> listLoginLogs(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") Integer size,
+            @Parameter(description = "用户名") @RequestParam(required = false) String username,
+            @Parameter(description = "登录状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "开始时间") @RequestParam(required = false) String startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime,
+            @Parameter(description = "是否返回估算总数") @RequestParam(defaultValue = "false") boolean withTotal) {
+        return Result.success(loginLogService.listLoginLogs(
+            cursor, Math.min(Math.max(size, 1), 100), username, status, startTime, endTime, withTotal));
+    }
+
+    @GetMapping("/login/export")
+    @Operation(summary = "流式导出登录日志")
+    @PreAuthorize("hasAuthority('log:login:export')")
+    public ResponseEntity<StreamingResponseBody> exportLoginLogs(
+            @Parameter(description = "导出格式：csv/ndjson") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "用户名") @RequestParam(required = false) String username,
+            @Parameter(description = "登录状态") @RequestParam(required = false) Integer status,
+            @Parameter(description = "开始时间") @RequestParam(required = false) String startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) String endTime) {
+        LogExportService.Format exportFormat = LogExportService.Format.of(format);
+        return exportResponse("login-log", exportFormat, gzip, out -> logExportService.exportLoginLogs(
+            out, exportFormat, username, status, startTime, endTime));
+    }
+
     @DeleteMapping("/operation/clean")
     @Operation(summary = "清理过期操作日志")
     @PreAuthorize("hasAuthority('log:operation:clean')")
@@ -79,4 +189,26 @@ public class SysLogController {
         loginLogService.cleanLogs(days);
         return Result.success("清理登录日志完成");
     }
+
+    /**
+     * 构建流式导出响应，可选gzip压缩
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, LogExportService.Format format,
+                                                                 boolean gzip, StreamingResponseBody writer) {
+        String filename = name + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+            + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                writer.writeTo(out);
+                return;
+            }
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+            writer.writeTo(gzipOut);
+            gzipOut.finish();
+        };
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8")
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package cloud.topdaddy.admin.controller;
 
 import cloud.topdaddy.admin.common.Result;
+import cloud.topdaddy.admin.dto.AssignmentDiff;
 import cloud.topdaddy.admin.entity.SysRole;
 import cloud.topdaddy.admin.servcie.SysRoleService;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -108,11 +109,11 @@ public class SysRoleController {
     @PutMapping("/{id}/permissions")
     @Operation(summary = "分配角色权限")
     @PreAuthorize("hasAuthority('role:assign')")
-    public Result<Boolean> assignPermissions(
+    public Result<AssignmentDiff> assignPermissions(
             @PathVariable Long id,
             @RequestBody List<Long> permissionIds) {
-        boolean result = roleService.assignPermissions(id, permissionIds);
-        return Result.success(result);
+        AssignmentDiff diff = roleService.assignPermissions(id, permissionIds);
+        return Result.success(diff);
     }
 
     @GetMapping("/{id}/permissions")
@@ -1,17 +1,28 @@
 package cloud.topdaddy.admin.controller;
 
 import cloud.topdaddy.admin.common.Result;
+import cloud.topdaddy.admin.dto.AssignmentDiff;
+import cloud.topdaddy.admin.dto.BulkRoleAssignRequest;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.ImportProgress;
+import cloud.topdaddy.admin.dto.ImportRowError;
 import cloud.topdaddy.admin.dto.UserCreateRequest;
 import cloud.topdaddy.admin.dto.UserQueryRequest;
 import cloud.topdaddy.admin.dto.UserUpdateRequest;
 import cloud.topdaddy.admin.entity.SysUser;
+import cloud.topdaddy.admin.security.UserDetailsImpl;
 import cloud.topdaddy.admin.servcie.SysUserService;
+import cloud.topdaddy.admin.servcie.UserImportService;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -26,6 +37,7 @@ import java.util.List;
 public class SysUserController {
 
     private final SysUserService userService;
+    private final UserImportService userImportService;
 
     /**
      * 分页查询用户列表
@@ -37,6 +49,17 @@ public class SysUserController {
         return Result.success(page);
     }
 
+    /**
+     * 游标查询用户列表，pageSize为每页大小，pageNum不生效
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('system:user:query')")
+    public Result<CursorPage<SysUser>> listUsers(@Validated UserQueryRequest request,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "false") boolean withTotal) {
+        return Result.success(userService.listUsers(request, cursor, withTotal));
+    }
+
     /**
      * 根据ID查询用户详情
      */
@@ -120,9 +143,31 @@ public class SysUserController {
      */
     @PutMapping("/{id}/roles")
     @PreAuthorize("hasAuthority('system:user:edit')")
-    public Result<Void> assignRoles(@PathVariable Long id, @RequestBody List<Long> roleIds) {
-        userService.assignRoles(id, roleIds);
-        return Result.success("分配角色成功");
+    public Result<AssignmentDiff> assignRoles(@PathVariable Long id, @RequestBody List<Long> roleIds) {
+        AssignmentDiff diff = userService.assignRoles(id, roleIds);
+        return Result.success("分配角色成功", diff);
+    }
+
+    /**
+     * 批量为用户授予角色，返回新增的关联数量
+     */
+    @PostMapping("/roles/grant")
+    @PreAuthorize("hasAuthority('system:user:edit')")
+    public Result<Integer> grantRoles(@Validated @RequestBody BulkRoleAssignRequest request,
+                                      @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        int granted = userService.grantRoles(request.getUserIds(), request.getRoleIds(),
+                userDetails != null ? userDetails.getUserId() : null);
+        return Result.success("授予角色成功", granted);
+    }
+
+    /**
+     * 批量撤销用户的角色，返回删除的关联数量
+     */
+    @PostMapping("/roles/revoke")
+    @PreAuthorize("hasAuthority('system:user:edit')")
+    public Result<Integer> revokeRoles(@Validated @RequestBody BulkRoleAssignRequest request) {
+        int revoked = userService.revokeRoles(request.getUserIds(), request.getRoleIds());
+        return Result.success("撤销角色成功", revoked);
     }
 
     /**
@@ -145,6 +190,39 @@ public class SysUserController {
         return Result.success(roles);
     }
 
+    /**
+     * 批量导入用户，后台异步执行，返回任务进度
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAuthority('system:user:import')")
+    public Result<ImportProgress> importUsers(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(defaultValue = "csv") String format,
+                                              @AuthenticationPrincipal UserDetailsImpl userDetails) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            ImportProgress progress = userImportService.submit(in, UserImportService.Format.of(format),
+                    userDetails != null ? userDetails.getUserId() : null);
+            return Result.success("导入任务已提交", progress);
+        }
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('system:user:import')")
+    public Result<ImportProgress> getImportProgress(@PathVariable String jobId) {
+        return Result.success(userImportService.getProgress(jobId));
+    }
+
+    /**
+     * 查询导入任务的失败行
+     */
+    @GetMapping("/import/{jobId}/errors")
+    @PreAuthorize("hasAuthority('system:user:import')")
+    public Result<List<ImportRowError>> getImportErrors(@PathVariable String jobId) {
+        return Result.success(userImportService.getErrors(jobId));
+    }
+
     /**
      * 检查用户名是否存在
      */
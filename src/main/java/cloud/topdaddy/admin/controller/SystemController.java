@@ -1,7 +1,13 @@
 package cloud.topdaddy.admin.controller;
 
 import cloud.topdaddy.admin.common.Result;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.OnlineSession;
+import cloud.topdaddy.admin.security.TokenBlacklist;
+import cloud.topdaddy.admin.security.VerifiedTokenCache;
 import cloud.topdaddy.admin.servcie.CacheService;
+import cloud.topdaddy.admin.servcie.LogStatsService;
+import cloud.topdaddy.admin.servcie.SessionRegistryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +18,8 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * 系统管理控制器
@@ -28,6 +34,10 @@ import java.util.Set;
 public class SystemController {
 
     private final CacheService cacheService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenBlacklist tokenBlacklist;
+    private final SessionRegistryService sessionRegistryService;
+    private final LogStatsService logStatsService;
 
     @GetMapping("/info")
     @Operation(summary = "获取系统信息")
@@ -71,11 +81,19 @@ public class SystemController {
     @GetMapping("/online-users")
     @Operation(summary = "获取在线用户列表")
     @PreAuthorize("hasAuthority('system:online:list')")
-    public Result<Set<String>> getOnlineUsers() {
-        Set<String> onlineUsers = cacheService.getOnlineUsers();
+    public Result<CursorPage<OnlineSession>> getOnlineUsers(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") Integer size) {
+        CursorPage<OnlineSession> onlineUsers = sessionRegistryService.listSessions(cursor, Math.min(Math.max(size, 1), 100));
         return Result.success(onlineUsers);
     }
 
+    @GetMapping("/online-users/{userId}")
+    @Operation(summary = "获取用户的在线会话")
+    @PreAuthorize("hasAuthority('system:online:list')")
+    public Result<List<OnlineSession>> getUserSessions(@PathVariable Long userId) {
+        return Result.success(sessionRegistryService.getUserSessions(userId));
+    }
+
     @PostMapping("/force-offline/{userId}")
     @Operation(summary = "强制用户下线")
     @PreAuthorize("hasAuthority('system:online:offline')")
@@ -100,6 +118,27 @@ public class SystemController {
         return Result.success("用户缓存清除成功");
     }
 
+    @GetMapping("/cache/token-stats")
+    @Operation(summary = "获取令牌验签缓存统计")
+    @PreAuthorize("hasAuthority('system:info')")
+    public Result<Map<String, Object>> getTokenCacheStats() {
+        return Result.success(verifiedTokenCache.getStats());
+    }
+
+    @GetMapping("/cache/blacklist-stats")
+    @Operation(summary = "获取令牌黑名单过滤器统计")
+    @PreAuthorize("hasAuthority('system:info')")
+    public Result<Map<String, Object>> getBlacklistStats() {
+        return Result.success(tokenBlacklist.getStats());
+    }
+
+    @GetMapping("/dashboard/stats")
+    @Operation(summary = "获取仪表盘日志统计")
+    @PreAuthorize("hasAuthority('system:info')")
+    public Result<Map<String, Object>> getDashboardStats() {
+        return Result.success(logStatsService.getDashboardStats());
+    }
+
     @PostMapping("/gc")
     @Operation(summary = "执行垃圾回收")
     @PreAuthorize("hasAuthority('system:gc')")
@@ -0,0 +1,61 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 关联分配的变更结果
+ *
+ * @author topdaddy
+ */
+@Data
+public class AssignmentDiff implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 新增的关联ID
+     */
+    private List<Long> added;
+
+    /**
+     * 移除的关联ID
+     */
+    private List<Long> removed;
+
+    /**
+     * 未变化的关联数量
+     */
+    private int unchanged;
+
+    /**
+     * 比较当前关联与目标关联，目标中的null和重复项被忽略
+     */
+    public static AssignmentDiff of(Collection<Long> current, Collection<Long> target) {
+        Set<Long> currentSet = new LinkedHashSet<>(current);
+        Set<Long> targetSet = new LinkedHashSet<>();
+        if (target != null) {
+            targetSet.addAll(target);
+            targetSet.remove(null);
+        }
+
+        AssignmentDiff diff = new AssignmentDiff();
+        diff.setAdded(targetSet.stream().filter(id -> !currentSet.contains(id)).toList());
+        diff.setRemoved(currentSet.stream().filter(id -> !targetSet.contains(id)).toList());
+        diff.setUnchanged(currentSet.size() - diff.getRemoved().size());
+        return diff;
+    }
+
+    /**
+     * 是否有变更
+     */
+    public boolean isChanged() {
+        return !added.isEmpty() || !removed.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package cloud.topdaddy.admin.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量授予/撤销角色请求DTO
+ *
+ * @author topdaddy
+ */
+@Data
+public class BulkRoleAssignRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID列表
+     */
+    @NotEmpty(message = "用户ID不能为空")
+    private List<Long> userIds;
+
+    /**
+     * 角色ID列表
+     */
+    @NotEmpty(message = "角色ID不能为空")
+    private List<Long> roleIds;
+}
@@ -0,0 +1,47 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * @author topdaddy
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 总数（可能为估算值）
+     */
+    private Long total;
+
+    public static <T> CursorPage<T> of(List<T> records, String nextCursor, Long total) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setRecords(records);
+        page.setNextCursor(nextCursor);
+        page.setHasMore(nextCursor != null);
+        page.setTotal(total);
+        return page;
+    }
+}
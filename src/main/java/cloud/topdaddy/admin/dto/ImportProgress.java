@@ -0,0 +1,58 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 导入任务进度
+ *
+ * @author topdaddy
+ */
+@Data
+public class ImportProgress implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 状态：QUEUED-排队中，RUNNING-导入中，SUCCESS-已完成，FAILED-已失败
+     */
+    private String status;
+
+    /**
+     * 已读取行数
+     */
+    private long processedRows;
+
+    /**
+     * 导入成功数量
+     */
+    private long successCount;
+
+    /**
+     * 导入失败数量
+     */
+    private long failedCount;
+
+    /**
+     * 任务失败原因
+     */
+    private String message;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间
+     */
+    private LocalDateTime endTime;
+}
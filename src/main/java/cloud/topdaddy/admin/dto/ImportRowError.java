@@ -0,0 +1,36 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 导入失败的行
+ *
+ * @author topdaddy
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 行号，从第一条数据行开始计为1
+     */
+    private long rowNumber;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,57 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+
+/**
+ * 接口耗时统计
+ *
+ * @author topdaddy
+ */
+@Data
+public class LatencyStats {
+
+    /**
+     * 请求方法
+     */
+    private String method;
+
+    /**
+     * 操作名称
+     */
+    private String operation;
+
+    /**
+     * 调用次数
+     */
+    private Long count;
+
+    /**
+     * 失败次数
+     */
+    private Long errorCount;
+
+    /**
+     * 平均耗时(毫秒)
+     */
+    private Long avgCost;
+
+    /**
+     * 耗时中位数(毫秒)
+     */
+    private Long p50;
+
+    /**
+     * 95分位耗时(毫秒)
+     */
+    private Long p95;
+
+    /**
+     * 99分位耗时(毫秒)
+     */
+    private Long p99;
+
+    /**
+     * 最大耗时(毫秒)
+     */
+    private Long maxCost;
+}
@@ -0,0 +1,47 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 在线会话
+ *
+ * @author topdaddy
+ */
+@Data
+public class OnlineSession implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 会话ID
+     */
+    private String sessionId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 登录IP
+     */
+    private String loginIp;
+
+    /**
+     * 登录时间（毫秒）
+     */
+    private Long loginTime;
+
+    /**
+     * 最后活跃时间（毫秒）
+     */
+    private Long lastActiveTime;
+}
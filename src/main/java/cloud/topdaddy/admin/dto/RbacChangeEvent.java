@@ -0,0 +1,67 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 权限数据变更事件
+ *
+ * @author topdaddy
+ */
+@Data
+public class RbacChangeEvent implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 变更范围
+     */
+    public enum Scope {
+        /**
+         * 指定用户的角色或状态变更
+         */
+        USER,
+        /**
+         * 指定角色的权限或状态变更
+         */
+        ROLE,
+        /**
+         * 指定权限变更
+         */
+        PERMISSION,
+        /**
+         * 全部失效
+         */
+        ALL
+    }
+
+    /**
+     * 变更后的全局版本号
+     */
+    private Long epoch;
+
+    /**
+     * 变更范围
+     */
+    private Scope scope;
+
+    /**
+     * 受影响的用户/角色/权限ID
+     */
+    private List<Long> targetIds;
+
+    /**
+     * 发布节点ID
+     */
+    private String origin;
+
+    /**
+     * 是否只影响指定用户
+     */
+    public boolean isUserScoped() {
+        return scope == Scope.USER && targetIds != null;
+    }
+}
@@ -0,0 +1,46 @@
+package cloud.topdaddy.admin.dto;
+
+import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 键集分页游标，按 (时间, ID) 倒序定位下一页的起点
+ *
+ * @param time 上一页最后一条的时间
+ * @param id   上一页最后一条的ID
+ * @author topdaddy
+ */
+public record SeekCursor(LocalDateTime time, Long id) {
+
+    /**
+     * 编码为不透明的游标字符串
+     */
+    public String encode() {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，空字符串返回null
+     */
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0) {
+                throw BusinessException.of(ResultCode.PARAM_ERROR, "游标无效");
+            }
+            return new SeekCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw BusinessException.of(ResultCode.PARAM_ERROR, "游标无效");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+
+/**
+ * 按状态分组的计数
+ *
+ * @author topdaddy
+ */
+@Data
+public class StatusCount {
+
+    /**
+     * 状态
+     */
+    private Integer status;
+
+    /**
+     * 数量
+     */
+    private Long count;
+}
@@ -61,4 +61,9 @@ public class UserQueryRequest extends PageQuery {
      * 创建时间结束
      */
     private LocalDateTime createTimeEnd;
+
+    /**
+     * 是否同时返回角色编码和名称
+     */
+    private Boolean withRoles;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package cloud.topdaddy.admin.dto;
+
+import lombok.Data;
+
+/**
+ * 用户角色关联及角色基本信息
+ *
+ * @author topdaddy
+ */
+@Data
+public class UserRoleInfo {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 角色ID
+     */
+    private Long roleId;
+
+    /**
+     * 角色编码
+     */
+    private String roleCode;
+
+    /**
+     * 角色名称
+     */
+    private String roleName;
+}
@@ -1,5 +1,6 @@
 package cloud.topdaddy.admin.entity;
 
+import cloud.topdaddy.admin.handler.CompressedTextTypeHandler;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
 import java.io.Serial;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
  * @author topdaddy
  */
 @Data
-@TableName("sys_operation_log")
+@TableName(value = "sys_operation_log", autoResultMap = true)
 public class SysOperationLog implements Serializable {
 
     @Serial
@@ -52,11 +53,13 @@ public class SysOperationLog implements Serializable {
     /**
      * 请求参数
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     private String params;
 
     /**
      * 返回结果
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     private String result;
 
     /**
@@ -82,6 +85,7 @@ public class SysOperationLog implements Serializable {
     /**
      * 错误消息
      */
+    @TableField(typeHandler = CompressedTextTypeHandler.class)
     private String errorMsg;
 
     /**
@@ -90,13 +94,15 @@ public class SysOperationLog implements Serializable {
     private Integer costTime;
 
     /**
-     * 模块
+     * 模块（表中无此列）
      */
+    @TableField(exist = false)
     private String module;
 
     /**
-     * 操作类型
+     * 操作类型（表中无此列）
      */
+    @TableField(exist = false)
     private String type;
 
     /**
@@ -0,0 +1,81 @@
+package cloud.topdaddy.admin.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志小时汇总实体类
+ *
+ * @author topdaddy
+ */
+@Data
+@TableName("sys_operation_rollup")
+public class SysOperationRollup implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 所属小时
+     */
+    private LocalDateTime hourTime;
+
+    /**
+     * 写入节点
+     */
+    private String node;
+
+    /**
+     * 请求方法
+     */
+    private String method;
+
+    /**
+     * 操作名称
+     */
+    private String operation;
+
+    /**
+     * 用户ID，匿名请求为0
+     */
+    private Long userId;
+
+    /**
+     * 调用次数
+     */
+    private Long callCount;
+
+    /**
+     * 失败次数
+     */
+    private Long errorCount;
+
+    /**
+     * 总耗时(毫秒)
+     */
+    private Long totalCost;
+
+    /**
+     * 最大耗时(毫秒)
+     */
+    private Long maxCost;
+
+    /**
+     * 耗时直方图
+     */
+    private byte[] histogram;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,134 @@
+package cloud.topdaddy.admin.handler;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩文本类型处理器
+ * <p>
+ * 文本以UTF-8编码后写入BLOB列，首字节为编码标记：0xF8 原文，0xF9 Deflate压缩。
+ * 0xF8-0xFF 不会出现在合法的UTF-8文本中，因此标记与迁移前的原始文本不会混淆。
+ * 较短或压缩后不变小的文本按原文保存。首字节不是标记的数据视为迁移前的原始文本。
+ *
+ * @author topdaddy
+ */
+@MappedTypes(String.class)
+@MappedJdbcTypes(JdbcType.BLOB)
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    private static final byte CODEC_RAW = (byte) 0xF8;
+    private static final byte CODEC_DEFLATE = (byte) 0xF9;
+
+    /**
+     * 小于该长度的文本不压缩
+     */
+    private static final int MIN_COMPRESS_BYTES = 128;
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return decode(cs.getBytes(columnIndex));
+    }
+
+    /**
+     * 编码文本
+     */
+    public static byte[] encode(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_COMPRESS_BYTES) {
+            byte[] compressed = deflate(raw);
+            if (compressed.length + 1 < raw.length) {
+                return withMarker(CODEC_DEFLATE, compressed, compressed.length);
+            }
+        }
+        return withMarker(CODEC_RAW, raw, raw.length);
+    }
+
+    /**
+     * 解码文本
+     */
+    public static String decode(byte[] bytes) throws SQLException {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length == 0) {
+            return "";
+        }
+        return switch (bytes[0]) {
+            case CODEC_RAW -> new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case CODEC_DEFLATE -> new String(inflate(bytes), StandardCharsets.UTF_8);
+            default -> new String(bytes, StandardCharsets.UTF_8);
+        };
+    }
+
+    private static byte[] withMarker(byte marker, byte[] payload, int length) {
+        byte[] encoded = new byte[length + 1];
+        encoded[0] = marker;
+        System.arraycopy(payload, 0, encoded, 1, length);
+        return encoded;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            // 压缩后没有变小，交由调用方按原文保存
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : raw;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] encoded) throws SQLException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(encoded, 1, encoded.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SQLException("压缩数据不完整");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SQLException("解压数据失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
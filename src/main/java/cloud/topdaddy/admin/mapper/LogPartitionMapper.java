@@ -0,0 +1,33 @@
+package cloud.topdaddy.admin.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.util.List;
+
+/**
+ * 日志分区维护Mapper接口
+ * <p>
+ * 表名和分区名由调用方从白名单生成，不接受外部输入。
+ *
+ * @author topdaddy
+ */
+@Mapper
+public interface LogPartitionMapper {
+
+    /**
+     * 查询表的分区名，按分区顺序排列，未分区时返回空
+     */
+    List<String> selectPartitionNames(@Param("table") String table);
+
+    /**
+     * 从兜底分区中拆分出新的月分区
+     */
+    int addPartition(@Param("table") String table,
+                     @Param("partition") String partition,
+                     @Param("lessThan") String lessThan);
+
+    /**
+     * 删除分区
+     */
+    int dropPartition(@Param("table") String table, @Param("partition") String partition);
+}
@@ -1,9 +1,11 @@
 package cloud.topdaddy.admin.mapper;
 
+import cloud.topdaddy.admin.dto.StatusCount;
 import cloud.topdaddy.admin.entity.SysLoginLog;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -56,8 +58,33 @@ public interface SysLoginLogMapper extends BaseMapper<SysLoginLog> {
      */
     Long countFailedLogs();
 
+    /**
+     * 按状态分组统计时间范围内的登录日志数量，时间为空时统计全表
+     */
+    List<StatusCount> countByStatus(@Param("startTime") LocalDateTime startTime,
+                                    @Param("endTime") LocalDateTime endTime);
+
     /**
      * 统计最近登录的用户数量
      */
     Long countRecentUsers(@Param("hours") Integer hours);
+
+    /**
+     * 按导出条件流式读取日志，按时间倒序
+     */
+    Cursor<SysLoginLog> selectExportCursor(@Param("username") String username,
+                                           @Param("status") Integer status,
+                                           @Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 批量插入登录日志
+     */
+    int batchInsert(@Param("logs") List<SysLoginLog> logs);
+
+    /**
+     * 按时间正序流式读取 [startTime, endTime) 范围内的日志，startTime为空表示不限
+     */
+    Cursor<SysLoginLog> selectCursorByTimeRange(@Param("startTime") LocalDateTime startTime,
+                                                @Param("endTime") LocalDateTime endTime);
 }
\ No newline at end of file
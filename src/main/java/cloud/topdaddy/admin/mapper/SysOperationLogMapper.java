@@ -1,9 +1,11 @@
 package cloud.topdaddy.admin.mapper;
 
+import cloud.topdaddy.admin.dto.StatusCount;
 import cloud.topdaddy.admin.entity.SysOperationLog;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -55,4 +57,40 @@ public interface SysOperationLogMapper extends BaseMapper<SysOperationLog> {
      * 统计失败操作日志数量
      */
     Long countFailedLogs();
+
+    /**
+     * 按状态分组统计时间范围内的操作日志数量，时间为空时统计全表
+     */
+    List<StatusCount> countByStatus(@Param("startTime") LocalDateTime startTime,
+                                    @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 批量插入操作日志
+     */
+    int batchInsert(@Param("logs") List<SysOperationLog> logs);
+
+    /**
+     * 按时间正序流式读取 [startTime, endTime) 范围内的日志，startTime为空表示不限
+     */
+    Cursor<SysOperationLog> selectCursorByTimeRange(@Param("startTime") LocalDateTime startTime,
+                                                @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按导出条件流式读取日志，按时间倒序
+     */
+    Cursor<SysOperationLog> selectExportCursor(@Param("module") String module,
+                                               @Param("type") String type,
+                                               @Param("username") String username,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询未带编码标记的历史载荷
+     */
+    List<SysOperationLog> selectLegacyPayloads(@Param("afterId") Long afterId, @Param("limit") Integer limit);
+
+    /**
+     * 重写载荷列
+     */
+    int updatePayload(SysOperationLog operationLog);
 }
\ No newline at end of file
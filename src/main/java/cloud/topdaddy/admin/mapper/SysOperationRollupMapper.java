@@ -0,0 +1,39 @@
+package cloud.topdaddy.admin.mapper;
+
+import cloud.topdaddy.admin.entity.SysOperationRollup;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志小时汇总Mapper接口
+ *
+ * @author topdaddy
+ */
+@Mapper
+public interface SysOperationRollupMapper extends BaseMapper<SysOperationRollup> {
+
+    /**
+     * 查询节点在指定小时的汇总行
+     */
+    List<SysOperationRollup> selectByHour(@Param("hourTime") LocalDateTime hourTime, @Param("node") String node);
+
+    /**
+     * 批量写入汇总行，已存在时整体覆盖
+     */
+    int batchUpsert(@Param("rollups") List<SysOperationRollup> rollups);
+
+    /**
+     * 查询指定时间之后的汇总行
+     */
+    List<SysOperationRollup> selectSince(@Param("startTime") LocalDateTime startTime,
+                                         @Param("userId") Long userId,
+                                         @Param("method") String method);
+
+    /**
+     * 删除指定时间之前的汇总行
+     */
+    int deleteBefore(@Param("hourTime") LocalDateTime hourTime);
+}
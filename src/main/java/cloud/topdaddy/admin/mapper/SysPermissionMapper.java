@@ -4,6 +4,7 @@ import cloud.topdaddy.admin.entity.SysPermission;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +40,11 @@ public interface SysPermissionMapper extends BaseMapper<SysPermission> {
      */
     List<SysPermission> selectPermissionTree();
 
+    /**
+     * 查询所有启用权限的ID和编码
+     */
+    List<SysPermission> selectEnabledCodes();
+
     /**
      * 检查权限是否被角色使用
      */
@@ -48,4 +54,14 @@ public interface SysPermissionMapper extends BaseMapper<SysPermission> {
      * 检查是否存在子权限
      */
     int countChildrenByParentId(@Param("parentId") Long parentId);
+
+    /**
+     * 从给定权限中筛选出仍被角色使用的权限ID
+     */
+    List<Long> selectPermissionIdsInUse(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 查询给定权限的直接子权限，仅返回ID和父ID
+     */
+    List<SysPermission> selectChildrenByParentIds(@Param("parentIds") Collection<Long> parentIds);
 }
\ No newline at end of file
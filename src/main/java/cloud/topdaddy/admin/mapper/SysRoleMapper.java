@@ -4,6 +4,7 @@ import cloud.topdaddy.admin.entity.SysRole;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,4 +39,14 @@ public interface SysRoleMapper extends BaseMapper<SysRole> {
      * 检查角色是否被用户使用
      */
     int countUsersByRoleId(@Param("roleId") Long roleId);
+
+    /**
+     * 从给定角色中筛选出仍被用户使用的角色ID
+     */
+    List<Long> selectRoleIdsInUse(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 锁定角色行，角色不存在时返回null
+     */
+    Long lockById(@Param("roleId") Long roleId);
 }
\ No newline at end of file
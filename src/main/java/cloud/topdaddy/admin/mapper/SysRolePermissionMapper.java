@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +26,22 @@ public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
      */
     int deleteByPermissionId(@Param("permissionId") Long permissionId);
 
+    /**
+     * 根据角色ID集合删除角色权限关联
+     */
+    int deleteByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 根据权限ID集合删除角色权限关联
+     */
+    int deleteByPermissionIds(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 删除角色的指定权限关联
+     */
+    int deleteByRoleIdAndPermissionIds(@Param("roleId") Long roleId,
+                                       @Param("permissionIds") Collection<Long> permissionIds);
+
     /**
      * 批量插入角色权限关联
      */
@@ -40,6 +57,16 @@ public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
      */
     List<Long> selectRoleIdsByPermissionId(@Param("permissionId") Long permissionId);
 
+    /**
+     * 查询全部角色权限关联
+     */
+    List<SysRolePermission> selectAllRelations();
+
+    /**
+     * 查询指定角色的角色权限关联
+     */
+    List<SysRolePermission> selectRelationsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
     /**
      * 检查角色权限关联是否存在
      */
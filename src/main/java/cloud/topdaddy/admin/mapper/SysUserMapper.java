@@ -1,9 +1,12 @@
 package cloud.topdaddy.admin.mapper;
 
+import cloud.topdaddy.admin.dto.UserRoleInfo;
 import cloud.topdaddy.admin.entity.SysUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,6 +47,26 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      */
     List<Long> selectUserRoleIds(@Param("userId") Long userId);
 
+    /**
+     * 批量查询多个用户的有效角色
+     */
+    List<UserRoleInfo> selectRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 流式读取全部用户的用户名、邮箱和手机号，包含已删除用户
+     */
+    void selectUniqueKeys(ResultHandler<SysUser> handler);
+
+    /**
+     * 批量插入用户
+     */
+    int batchInsert(@Param("users") List<SysUser> users);
+
+    /**
+     * 根据用户名集合查询用户ID
+     */
+    List<SysUser> selectIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
     /**
      * 根据角色ID查询用户列表
      */
@@ -53,4 +76,14 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * 更新用户最后登录信息
      */
     int updateLastLoginInfo(@Param("userId") Long userId, @Param("loginTime") String loginTime, @Param("loginIp") String loginIp);
+
+    /**
+     * 批量更新用户最后登录信息
+     */
+    int batchUpdateLastLoginInfo(@Param("users") List<SysUser> users);
+
+    /**
+     * 锁定用户行，用户不存在时返回null
+     */
+    Long lockById(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import cloud.topdaddy.admin.entity.SysUserRole;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,11 +25,32 @@ public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
      */
     int deleteByRoleId(@Param("roleId") Long roleId);
 
+    /**
+     * 根据用户ID集合删除用户角色关联
+     */
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 删除用户的指定角色关联
+     */
+    int deleteByUserIdAndRoleIds(@Param("userId") Long userId, @Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 删除指定用户与指定角色之间的全部关联
+     */
+    int deleteByUserIdsAndRoleIds(@Param("userIds") Collection<Long> userIds, @Param("roleIds") Collection<Long> roleIds);
+
     /**
      * 批量插入用户角色关联
      */
     int batchInsert(@Param("userRoles") List<SysUserRole> userRoles);
 
+    /**
+     * 为每个用户插入每个角色的关联，已存在的关联忽略，返回新插入的行数
+     */
+    int insertIgnoreCrossJoin(@Param("userIds") Collection<Long> userIds, @Param("roleIds") Collection<Long> roleIds,
+                              @Param("creator") Long creator);
+
     /**
      * 根据用户ID查询角色ID列表
      */
@@ -39,6 +61,16 @@ public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
      */
     List<Long> selectUserIdsByRoleId(@Param("roleId") Long roleId);
 
+    /**
+     * 查询全部用户角色关联
+     */
+    List<SysUserRole> selectAllRelations();
+
+    /**
+     * 查询指定用户的用户角色关联
+     */
+    List<SysUserRole> selectRelationsByUserIds(@Param("userIds") Collection<Long> userIds);
+
     /**
      * 检查用户角色关联是否存在
      */
@@ -0,0 +1,18 @@
+package cloud.topdaddy.admin.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 表统计信息Mapper接口
+ *
+ * @author topdaddy
+ */
+@Mapper
+public interface TableStatMapper {
+
+    /**
+     * 从统计信息估算表的行数，不扫描数据
+     */
+    Long estimateRows(@Param("table") String table);
+}
@@ -0,0 +1,174 @@
+package cloud.topdaddy.admin.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 耗时直方图
+ * <p>
+ * 对数线性分桶：小于64的值每个值一个桶，之后每个2的幂区间再均分为32个桶，
+ * 相对误差不超过1/32。桶数组按已记录的最大值按需扩展，非线程安全。
+ *
+ * @author topdaddy
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    private long[] counts = new long[0];
+    private long totalCount;
+    private long maxValue;
+
+    /**
+     * 记录一个值，负数按0处理
+     */
+    public void record(long value) {
+        long v = Math.max(0L, Math.min(value, Integer.MAX_VALUE));
+        int index = indexOf(v);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        totalCount++;
+        maxValue = Math.max(maxValue, v);
+    }
+
+    /**
+     * 合并另一个直方图
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * 百分位值，返回所在桶的上界且不超过最大值，没有数据时返回0
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(percentile / 100D * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * 编码为紧凑字节：非空桶数量，之后为若干 [桶序号差值][数量]，均为变长整数
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        int buckets = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                buckets++;
+            }
+        }
+        writeVarLong(out, buckets);
+        int last = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - last);
+                writeVarLong(out, counts[i]);
+                last = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 从 {@link #encode()} 的结果还原，最大值按最高非空桶的上界估算
+     */
+    public static LatencyHistogram decode(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long buckets = readVarLong(buffer);
+        int index = 0;
+        for (long i = 0; i < buckets; i++) {
+            index += (int) readVarLong(buffer);
+            long count = readVarLong(buffer);
+            if (index < 0 || index > indexOf(Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("直方图桶序号越界: " + index);
+            }
+            if (index >= histogram.counts.length) {
+                histogram.counts = Arrays.copyOf(histogram.counts, index + 1);
+            }
+            histogram.counts[index] += count;
+            histogram.totalCount += count;
+            histogram.maxValue = Math.max(histogram.maxValue, highestValueAt(index));
+        }
+        return histogram;
+    }
+
+    /**
+     * 用已知的精确最大值修正解码后的估算值
+     */
+    public void setMaxValue(long maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("直方图编码格式错误");
+    }
+}
@@ -0,0 +1,92 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.config.JwtProperties;
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户授权快照缓存
+ * <p>
+ * 按用户ID缓存已加载的 {@link UserDetailsImpl}（不含密码），供JWT过滤器无状态重建认证信息。
+ * 权限数据变更时按范围淘汰并递增本地版本号，加载前后版本号不一致的结果不会写入缓存，
+ * 因此版本变更后只有第一次请求访问数据库。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+public class AuthoritySnapshotCache implements RbacChangeListener {
+
+    private final UserDetailsService userDetailsService;
+    private final LRUCache<Long, UserDetailsImpl> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public AuthoritySnapshotCache(@Lazy UserDetailsService userDetailsService, JwtProperties jwtProperties) {
+        this.userDetailsService = userDetailsService;
+        this.cache = CacheUtil.newLRUCache(jwtProperties.getPrincipalCacheSize());
+    }
+
+    /**
+     * 获取用户的认证信息，未命中或已过期时重新加载
+     */
+    public UserDetailsImpl getPrincipal(Long userId, String username) {
+        UserDetailsImpl cached = cache.get(userId, false);
+        if (cached != null && cached.getUsername().equals(username)) {
+            return cached;
+        }
+
+        long loadVersion = version.get();
+        UserDetailsImpl principal = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+        if (!userId.equals(principal.getUserId())) {
+            log.warn("令牌用户ID与用户名不匹配，用户ID: {}, 用户名: {}", userId, username);
+            return null;
+        }
+        principal.setPassword(null);
+
+        if (version.get() == loadVersion) {
+            cache.put(userId, principal);
+        }
+        return principal;
+    }
+
+    /**
+     * 淘汰指定用户
+     */
+    public void evict(Long userId) {
+        version.incrementAndGet();
+        cache.remove(userId);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        version.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存条目数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void onRbacChange(RbacChangeEvent event) {
+        if (event.isUserScoped()) {
+            version.incrementAndGet();
+            event.getTargetIds().forEach(cache::remove);
+            log.debug("淘汰用户授权快照，用户ID列表: {}", event.getTargetIds());
+        } else {
+            clear();
+            log.debug("清空用户授权快照，变更范围: {}", event.getScope());
+        }
+    }
+}
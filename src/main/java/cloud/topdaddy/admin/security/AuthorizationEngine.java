@@ -0,0 +1,288 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+import cloud.topdaddy.admin.entity.SysPermission;
+import cloud.topdaddy.admin.entity.SysRolePermission;
+import cloud.topdaddy.admin.entity.SysUserRole;
+import cloud.topdaddy.admin.mapper.SysPermissionMapper;
+import cloud.topdaddy.admin.mapper.SysRolePermissionMapper;
+import cloud.topdaddy.admin.mapper.SysUserRoleMapper;
+import cloud.topdaddy.admin.utils.BatchUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存授权引擎
+ * <p>
+ * 将用户角色、角色权限和权限表加载为不可变的内存图，权限编码经 {@link PermissionIndex} 映射为int ID，
+ * 每个用户的有效权限预先合并为 {@link PermissionSet}，鉴权时无需访问数据库。
+ * 任一节点的权限数据变更经 {@code RbacEpochService} 广播后回调 {@link #onRbacChange}：
+ * 用户和角色范围的变更只在下一次鉴权时重新加载受影响的用户和角色，权限范围和全部失效时整体重新构建。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationEngine implements RbacChangeListener {
+
+    private final SysUserRoleMapper userRoleMapper;
+    private final SysRolePermissionMapper rolePermissionMapper;
+    private final SysPermissionMapper permissionMapper;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    /**
+     * 待重新加载的用户和角色
+     */
+    private final Set<Long> staleUsers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> staleRoles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 检查用户是否具有指定权限
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        if (userId == null || permissionCode == null) {
+            return false;
+        }
+        int permissionId = PermissionIndex.idOf(permissionCode);
+        if (permissionId < 0) {
+            return false;
+        }
+        PermissionSet permissions = current().userPermissions.get(userId);
+        return permissions != null && permissions.contains(permissionId);
+    }
+
+    /**
+     * 获取用户的有效权限集合
+     */
+    public PermissionSet getPermissions(Long userId) {
+        if (userId == null) {
+            return PermissionSet.EMPTY;
+        }
+        return current().userPermissions.getOrDefault(userId, PermissionSet.EMPTY);
+    }
+
+    @Override
+    public void onRbacChange(RbacChangeEvent event) {
+        // 回调发生在事务提交后，直接标记过期
+        if (event.getTargetIds() == null) {
+            stale = true;
+            return;
+        }
+        switch (event.getScope()) {
+            case USER -> staleUsers.addAll(event.getTargetIds());
+            case ROLE -> staleRoles.addAll(event.getTargetIds());
+            // 权限编码和状态影响整个映射，整体重新构建
+            default -> stale = true;
+        }
+    }
+
+    /**
+     * 立即重新加载权限图
+     */
+    public synchronized void refresh() {
+        stale = false;
+        // 全量加载覆盖此前的全部局部变更
+        staleUsers.clear();
+        staleRoles.clear();
+        try {
+            snapshot = load();
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+    }
+
+    /**
+     * 获取当前快照，过期时重新构建，有局部变更时只重新加载受影响的部分
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || stale || !staleUsers.isEmpty() || !staleRoles.isEmpty()) {
+            synchronized (this) {
+                if (snapshot == null || stale) {
+                    refresh();
+                } else if (!staleUsers.isEmpty() || !staleRoles.isEmpty()) {
+                    applyChanges();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 重新加载待变更的角色和用户，生成新的快照
+     */
+    private void applyChanges() {
+        // 先取出待处理的ID再查询数据库，查询期间到达的变更留到下一次处理
+        Set<Long> roles = drain(staleRoles);
+        Set<Long> users = drain(staleUsers);
+        try {
+            snapshot = patch(snapshot, roles, users);
+        } catch (RuntimeException e) {
+            staleRoles.addAll(roles);
+            staleUsers.addAll(users);
+            throw e;
+        }
+    }
+
+    private Snapshot patch(Snapshot base, Set<Long> roles, Set<Long> users) {
+        long startTime = System.currentTimeMillis();
+
+        Map<Long, PermissionSet> rolePermissions = base.rolePermissions();
+        Set<Long> affectedUsers = new HashSet<>(users);
+        if (!roles.isEmpty()) {
+            rolePermissions = new HashMap<>(rolePermissions);
+            Map<Long, PermissionSet.Builder> roleBuilders = new HashMap<>();
+            for (List<Long> chunk : BatchUtil.partition(new ArrayList<>(roles))) {
+                for (SysRolePermission relation : rolePermissionMapper.selectRelationsByRoleIds(chunk)) {
+                    Integer id = base.permissionIds().get(relation.getPermissionId());
+                    if (id != null) {
+                        roleBuilders.computeIfAbsent(relation.getRoleId(), roleId -> PermissionSet.builder()).add(id);
+                    }
+                }
+            }
+            for (Long roleId : roles) {
+                PermissionSet.Builder builder = roleBuilders.get(roleId);
+                if (builder != null) {
+                    rolePermissions.put(roleId, builder.build());
+                } else {
+                    rolePermissions.remove(roleId);
+                }
+            }
+            // 持有这些角色的用户需要重新合并
+            base.userRoles().forEach((userId, roleIds) -> {
+                if (roleIds.stream().anyMatch(roles::contains)) {
+                    affectedUsers.add(userId);
+                }
+            });
+        }
+
+        Map<Long, Set<Long>> userRoles = base.userRoles();
+        if (!users.isEmpty()) {
+            userRoles = new HashMap<>(userRoles);
+            Map<Long, Set<Long>> loaded = new HashMap<>();
+            for (List<Long> chunk : BatchUtil.partition(new ArrayList<>(users))) {
+                for (SysUserRole relation : userRoleMapper.selectRelationsByUserIds(chunk)) {
+                    loaded.computeIfAbsent(relation.getUserId(), userId -> new HashSet<>()).add(relation.getRoleId());
+                }
+            }
+            for (Long userId : users) {
+                Set<Long> roleIds = loaded.get(userId);
+                if (roleIds != null) {
+                    userRoles.put(userId, Set.copyOf(roleIds));
+                } else {
+                    userRoles.remove(userId);
+                }
+            }
+        }
+
+        Map<Long, PermissionSet> userPermissions = new HashMap<>(base.userPermissions());
+        for (Long userId : affectedUsers) {
+            PermissionSet permissions = merge(userRoles.get(userId), rolePermissions);
+            if (permissions != null) {
+                userPermissions.put(userId, permissions);
+            } else {
+                userPermissions.remove(userId);
+            }
+        }
+
+        log.debug("局部更新权限图完成，角色数量: {}, 用户数量: {}, 耗时: {}ms",
+                roles.size(), affectedUsers.size(), System.currentTimeMillis() - startTime);
+        return new Snapshot(userPermissions, rolePermissions, userRoles, base.permissionIds());
+    }
+
+    /**
+     * 合并用户各角色的权限，没有任何权限时返回null
+     */
+    private static PermissionSet merge(Set<Long> roleIds, Map<Long, PermissionSet> rolePermissions) {
+        if (roleIds == null) {
+            return null;
+        }
+        PermissionSet.Builder builder = null;
+        for (Long roleId : roleIds) {
+            PermissionSet rolePermission = rolePermissions.get(roleId);
+            if (rolePermission != null) {
+                if (builder == null) {
+                    builder = PermissionSet.builder();
+                }
+                builder.addAll(rolePermission);
+            }
+        }
+        return builder == null ? null : builder.build();
+    }
+
+    private static Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new HashSet<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 从数据库加载权限图
+     */
+    private Snapshot load() {
+        long startTime = System.currentTimeMillis();
+
+        // 权限ID -> 编码ID
+        List<SysPermission> permissions = permissionMapper.selectEnabledCodes();
+        Map<Long, Integer> permissionIds = new HashMap<>(permissions.size() * 2);
+        for (SysPermission permission : permissions) {
+            permissionIds.put(permission.getId(), PermissionIndex.intern(permission.getCode()));
+        }
+
+        // 角色 -> 权限集合
+        Map<Long, PermissionSet.Builder> roleBuilders = new HashMap<>();
+        for (SysRolePermission relation : rolePermissionMapper.selectAllRelations()) {
+            Integer id = permissionIds.get(relation.getPermissionId());
+            if (id != null) {
+                roleBuilders.computeIfAbsent(relation.getRoleId(), roleId -> PermissionSet.builder()).add(id);
+            }
+        }
+        Map<Long, PermissionSet> rolePermissions = new HashMap<>(roleBuilders.size() * 2);
+        roleBuilders.forEach((roleId, builder) -> rolePermissions.put(roleId, builder.build()));
+
+        // 用户 -> 角色集合，保留下来供局部更新使用
+        Map<Long, Set<Long>> roleSets = new HashMap<>();
+        for (SysUserRole relation : userRoleMapper.selectAllRelations()) {
+            roleSets.computeIfAbsent(relation.getUserId(), userId -> new HashSet<>()).add(relation.getRoleId());
+        }
+        Map<Long, Set<Long>> userRoles = new HashMap<>(roleSets.size() * 2);
+        roleSets.forEach((userId, roleIds) -> userRoles.put(userId, Set.copyOf(roleIds)));
+
+        // 用户 -> 合并后的权限集合
+        Map<Long, PermissionSet> userPermissions = new HashMap<>(userRoles.size() * 2);
+        userRoles.forEach((userId, roleIds) -> {
+            PermissionSet merged = merge(roleIds, rolePermissions);
+            if (merged != null) {
+                userPermissions.put(userId, merged);
+            }
+        });
+
+        log.info("加载权限图完成，权限数量: {}, 角色数量: {}, 用户数量: {}, 耗时: {}ms",
+                permissionIds.size(), rolePermissions.size(), userPermissions.size(), System.currentTimeMillis() - startTime);
+        return new Snapshot(userPermissions, rolePermissions, userRoles, permissionIds);
+    }
+
+    /**
+     * 不可变权限图快照，更新时复制后替换
+     */
+    private record Snapshot(Map<Long, PermissionSet> userPermissions, Map<Long, PermissionSet> rolePermissions,
+                            Map<Long, Set<Long>> userRoles, Map<Long, Integer> permissionIds) {
+    }
+}
@@ -1,13 +1,13 @@
 package cloud.topdaddy.admin.security;
 
 import cloud.topdaddy.admin.config.JwtProperties;
+import cloud.topdaddy.admin.servcie.UserActivityService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,7 +17,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * JWT认证过滤器
@@ -32,9 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenUtil jwtTokenUtil;
     private final JwtProperties jwtProperties;
     private final UserDetailsService userDetailsService;
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    private static final String TOKEN_BLACKLIST_PREFIX = "jwt:blacklist:";
+    private final AuthoritySnapshotCache authoritySnapshotCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenBlacklist tokenBlacklist;
+    private final SessionGenerationRegistry sessionGenerations;
+    private final UserActivityService userActivityService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -45,23 +46,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 获取JWT令牌
             String token = getTokenFromRequest(request);
             
-            if (StringUtils.hasText(token) && jwtTokenUtil.isValidTokenFormat(token)) {
+            // 解析并验证令牌，后续判断复用同一结果
+            VerifiedToken verified = StringUtils.hasText(token) ? verifiedTokenCache.verify(token) : null;
+            
+            if (verified != null) {
                 // 检查令牌是否在黑名单中
-                if (isTokenBlacklisted(token)) {
+                if (isTokenBlacklisted(verified, token)) {
                     log.debug("令牌已被加入黑名单");
                     filterChain.doFilter(request, response);
                     return;
                 }
                 
+                // 检查用户会话代数，强制下线后旧令牌全部失效
+                if (!sessionGenerations.isCurrent(verified)) {
+                    log.debug("令牌会话代数已失效，用户ID: {}", verified.userId());
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                
                 // 获取用户名
-                String username = jwtTokenUtil.getUsernameFromToken(token);
+                String username = verified.username();
                 
                 if (StringUtils.hasText(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
                     // 加载用户详情
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = loadUserDetails(verified, username);
                     
                     // 验证令牌
-                    if (jwtTokenUtil.validateToken(token, userDetails.getUsername())) {
+                    if (userDetails != null && jwtTokenUtil.validateToken(verified, userDetails.getUsername())) {
                         // 创建认证对象
                         UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
@@ -72,6 +83,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         // 设置到安全上下文
                         SecurityContextHolder.getContext().setAuthentication(authentication);
                         
+                        // 记录会话活跃时间
+                        if (verified.sessionId() != null && verified.userId() != null) {
+                            userActivityService.recordActivity(verified.userId(), verified.sessionId());
+                        }
+                        
                         log.debug("用户 {} 认证成功", username);
                     }
                 }
@@ -97,16 +113,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * 检查令牌是否在黑名单中
+     * 加载用户详情，无状态模式下优先使用本地授权快照
      */
-    private boolean isTokenBlacklisted(String token) {
-        try {
-            String key = TOKEN_BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-        } catch (Exception e) {
-            log.error("检查令牌黑名单失败", e);
-            return false;
+    private UserDetails loadUserDetails(VerifiedToken verified, String username) {
+        if (jwtProperties.isStatelessPrincipal() && verified.userId() != null) {
+            return authoritySnapshotCache.getPrincipal(verified.userId(), username);
         }
+        return userDetailsService.loadUserByUsername(username);
+    }
+
+    /**
+     * 检查令牌是否在黑名单中
+     */
+    private boolean isTokenBlacklisted(VerifiedToken verified, String token) {
+        return tokenBlacklist.isBlacklisted(verified, token);
     }
 
     /**
@@ -114,12 +134,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     public void addTokenToBlacklist(String token) {
         try {
-            String key = TOKEN_BLACKLIST_PREFIX + token;
+            // 立即淘汰本地验签缓存
+            verifiedTokenCache.evict(token);
             // 设置过期时间为令牌的剩余有效期
-            long expiration = jwtTokenUtil.getExpirationDateFromToken(token).getTime() - System.currentTimeMillis();
-            if (expiration > 0) {
-                redisTemplate.opsForValue().set(key, "blacklisted", expiration, TimeUnit.MILLISECONDS);
-                log.debug("令牌已加入黑名单");
+            VerifiedToken verified = jwtTokenUtil.verify(token);
+            if (verified != null && verified.remainingMillis() > 0) {
+                tokenBlacklist.add(verified, token);
+                log.debug("令牌已加入黑名单，jti: {}", verified.jti());
             }
         } catch (Exception e) {
             log.error("将令牌加入黑名单失败", e);
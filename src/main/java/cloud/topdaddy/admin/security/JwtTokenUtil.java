@@ -1,11 +1,15 @@
 package cloud.topdaddy.admin.security;
 
 import cloud.topdaddy.admin.config.JwtProperties;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -26,23 +30,77 @@ import java.util.Map;
 public class JwtTokenUtil {
 
     private final JwtProperties jwtProperties;
+    private final SessionGenerationRegistry sessionGenerations;
 
     /**
-     * 获取签名密钥
+     * 签名密钥
      */
-    private SecretKey getSigningKey() {
+    private SecretKey signingKey;
+
+    /**
+     * 可复用的令牌解析器，线程安全
+     */
+    private JwtParser parser;
+
+    /**
+     * 初始化签名密钥和解析器
+     */
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * 解析并验证令牌，签名无效、格式错误或已过期时返回null
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            Long generation = claims.get("gen", Long.class);
+            return new VerifiedToken(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("type", String.class),
+                    issuedAt != null ? issuedAt.getTime() : 0L,
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                    claims.getId(),
+                    generation != null ? generation : 0L,
+                    claims.get("sid", String.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            // 只在非空令牌时记录日志，避免垃圾日志
+            if (token.length() > 10) {
+                log.debug("令牌无效: {}", e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 计算令牌的SHA-256摘要，用作缓存的键
+     */
+    public static String digest(String token) {
+        return DigestUtil.sha256Hex(token);
     }
 
     /**
      * 生成访问令牌
      */
-    public String generateAccessToken(Long userId, String username) {
+    public String generateAccessToken(Long userId, String username, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
+        claims.put("sid", sessionId);
         claims.put("type", "access");
+        claims.put("gen", sessionGenerations.current(userId));
         
         return createToken(claims, username, jwtProperties.getExpiration());
     }
@@ -50,11 +108,13 @@ public class JwtTokenUtil {
     /**
      * 生成刷新令牌
      */
-    public String generateRefreshToken(Long userId, String username) {
+    public String generateRefreshToken(Long userId, String username, String sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
+        claims.put("sid", sessionId);
         claims.put("type", "refresh");
+        claims.put("gen", sessionGenerations.current(userId));
         
         return createToken(claims, username, jwtProperties.getRefreshExpiration());
     }
@@ -68,10 +128,11 @@ public class JwtTokenUtil {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(IdUtil.fastSimpleUUID())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -79,77 +140,49 @@ public class JwtTokenUtil {
      * 从令牌中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getSubject();
-        } catch (Exception e) {
-            log.error("获取用户名失败", e);
-            return null;
-        }
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.username() : null;
     }
 
     /**
      * 从令牌中获取用户ID
      */
     public Long getUserIdFromToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.get("userId", Long.class);
-        } catch (Exception e) {
-            log.error("获取用户ID失败", e);
-            return null;
-        }
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.userId() : null;
     }
 
     /**
      * 从令牌中获取过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.getExpiration();
-        } catch (Exception e) {
-            log.error("获取过期时间失败", e);
-            return null;
-        }
-    }
-
-    /**
-     * 从令牌中获取声明
-     */
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        VerifiedToken verified = verify(token);
+        return verified != null ? new Date(verified.expiresAt()) : null;
     }
 
     /**
      * 验证令牌是否过期
      */
     public Boolean isTokenExpired(String token) {
-        try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration != null && expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        VerifiedToken verified = verify(token);
+        return verified == null || verified.isExpired();
     }
 
     /**
      * 验证令牌
      */
     public Boolean validateToken(String token, String username) {
-        try {
-            String tokenUsername = getUsernameFromToken(token);
-            return tokenUsername != null && 
-                   tokenUsername.equals(username) && 
-                   !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("令牌验证失败", e);
-            return false;
-        }
+        return validateToken(verify(token), username);
+    }
+
+    /**
+     * 验证已解析的令牌
+     */
+    public boolean validateToken(VerifiedToken verified, String username) {
+        return verified != null &&
+               verified.username() != null &&
+               verified.username().equals(username) &&
+               !verified.isExpired();
     }
 
     /**
@@ -167,32 +200,15 @@ public class JwtTokenUtil {
             return false;
         }
         
-        try {
-            Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // 只在非空令牌时记录日志，避免垃圾日志
-            if (token.length() > 10) {
-                log.debug("令牌格式无效: {}", e.getMessage());
-            }
-            return false;
-        }
+        return verify(token) != null;
     }
 
     /**
      * 获取令牌类型
      */
     public String getTokenType(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims.get("type", String.class);
-        } catch (Exception e) {
-            log.error("获取令牌类型失败", e);
-            return null;
-        }
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.type() : null;
     }
 
     /**
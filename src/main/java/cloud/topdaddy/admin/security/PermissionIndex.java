@@ -0,0 +1,64 @@
+package cloud.topdaddy.admin.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限编码字典
+ * <p>
+ * 将权限编码映射为进程内稳定的连续int ID，只追加不回收，
+ * 因此权限图重建前后生成的 {@link PermissionSet} 可以直接比较。
+ * ID仅在当前节点有效，不可写入Redis或跨节点传递。
+ *
+ * @author topdaddy
+ */
+public final class PermissionIndex {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static volatile String[] codes = new String[64];
+
+    private PermissionIndex() {
+    }
+
+    /**
+     * 获取权限编码的ID，不存在时分配新ID
+     */
+    public static int intern(String code) {
+        Integer id = IDS.get(code);
+        if (id != null) {
+            return id;
+        }
+        synchronized (PermissionIndex.class) {
+            id = IDS.get(code);
+            if (id != null) {
+                return id;
+            }
+            int newId = IDS.size();
+            String[] current = codes;
+            if (newId >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newId] = code;
+            codes = current;
+            IDS.put(code, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * 获取权限编码的ID，未登记时返回-1
+     */
+    public static int idOf(String code) {
+        Integer id = IDS.get(code);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 根据ID获取权限编码
+     */
+    public static String codeOf(int id) {
+        String[] current = codes;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+}
@@ -0,0 +1,209 @@
+package cloud.topdaddy.admin.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户有效权限集合
+ * <p>
+ * 以 {@link PermissionIndex} 分配的ID为下标的不可变位图，
+ * 替代 {@code List<SysPermission>} / {@code List<String>}，判断权限时无需字符串比较。
+ * 位下标只在本节点的当前进程内有效，因此不实现序列化，跨节点或持久化时请使用 {@link #toCodes()}。
+ *
+ * @author topdaddy
+ */
+public final class PermissionSet {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    /**
+     * 空权限集合
+     */
+    public static final PermissionSet EMPTY = new PermissionSet(NO_WORDS);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 根据权限编码创建权限集合
+     */
+    public static PermissionSet of(Collection<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = builder();
+        codes.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 是否包含指定ID的权限
+     */
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = id >>> 6;
+        return index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否包含指定编码的权限
+     */
+    public boolean contains(String code) {
+        return code != null && contains(PermissionIndex.idOf(code));
+    }
+
+    /**
+     * 是否包含全部指定编码的权限
+     */
+    public boolean containsAll(String... codes) {
+        for (String code : codes) {
+            if (!contains(code)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含任一指定编码的权限
+     */
+    public boolean containsAny(String... codes) {
+        for (String code : codes) {
+            if (contains(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否包含另一集合中的全部权限
+     */
+    public boolean containsAll(PermissionSet other) {
+        long[] otherWords = other.words;
+        for (int i = 0; i < otherWords.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((otherWords[i] & ~word) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含另一集合中的任一权限
+     */
+    public boolean containsAny(PermissionSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 权限数量
+     */
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    /**
+     * 转换为权限编码列表
+     */
+    public List<String> toCodes() {
+        List<String> codes = new ArrayList<>(size());
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int id = (i << 6) + Long.numberOfTrailingZeros(word);
+                codes.add(PermissionIndex.codeOf(id));
+                word &= word - 1;
+            }
+        }
+        return codes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof PermissionSet other && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toCodes().toString();
+    }
+
+    /**
+     * 权限集合构建器
+     */
+    public static final class Builder {
+
+        private long[] words = NO_WORDS;
+
+        private Builder() {
+        }
+
+        public Builder add(String code) {
+            if (code != null) {
+                add(PermissionIndex.intern(code));
+            }
+            return this;
+        }
+
+        public Builder add(int id) {
+            int index = id >>> 6;
+            ensureCapacity(index + 1);
+            words[index] |= 1L << id;
+            return this;
+        }
+
+        public Builder addAll(PermissionSet other) {
+            ensureCapacity(other.words.length);
+            for (int i = 0; i < other.words.length; i++) {
+                words[i] |= other.words[i];
+            }
+            return this;
+        }
+
+        public PermissionSet build() {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) {
+                length--;
+            }
+            return length == 0 ? EMPTY : new PermissionSet(Arrays.copyOf(words, length));
+        }
+
+        private void ensureCapacity(int length) {
+            if (words.length < length) {
+                words = Arrays.copyOf(words, Math.max(length, words.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+
+/**
+ * 权限数据变更监听器
+ * <p>
+ * 持有本地授权缓存的组件实现此接口，由 {@code RbacEpochService} 在本节点或其他节点发生变更后回调。
+ *
+ * @author topdaddy
+ */
+public interface RbacChangeListener {
+
+    /**
+     * 处理权限数据变更
+     */
+    void onRbacChange(RbacChangeEvent event);
+}
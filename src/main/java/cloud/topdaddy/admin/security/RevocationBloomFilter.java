@@ -0,0 +1,87 @@
+package cloud.topdaddy.admin.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 令牌吊销布隆过滤器
+ * <p>
+ * 元素为令牌ID或摘要，经64位混合哈希后拆分为双重哈希的种子。
+ * 只增不删，过期元素通过重建整个过滤器清除。线程安全。
+ *
+ * @author topdaddy
+ */
+final class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    RevocationBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1L, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bitSize = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * 添加元素
+     */
+    void put(String id) {
+        long hash = hash(id);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | (hash << 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    /**
+     * 元素是否可能存在，返回false时一定不存在
+     */
+    boolean mightContain(String id) {
+        long hash = hash(id);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | (hash << 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 位数组大小
+     */
+    long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * FNV-1a累加后做一次murmur3终结混合
+     */
+    private static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,129 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.config.JwtProperties;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户会话代数
+ * <p>
+ * 每个用户在Redis中保存一个递增的会话代数，令牌签发时写入 {@code gen} 声明，
+ * 代数小于当前值的令牌一律失效，递增一次即可吊销该用户的全部令牌。
+ * 本地缓存代数并通过发布订阅同步，条目定期过期以弥补丢失的通知。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+public class SessionGenerationRegistry {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final LRUCache<Long, Long> generations;
+    private final long localTtl;
+
+    private static final String GENERATION_PREFIX = "rbac:session:gen:";
+    private static final String CHANNEL = "rbac:session:gen:events";
+
+    public SessionGenerationRegistry(RedisTemplate<String, Object> redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     JwtProperties jwtProperties) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.generations = CacheUtil.newLRUCache(jwtProperties.getGenerationCacheSize());
+        this.localTtl = jwtProperties.getGenerationCacheTtl();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (body == null) {
+                return;
+            }
+            String[] parts = body.toString().split(":");
+            if (parts.length == 2) {
+                advance(Long.valueOf(parts[0]), Long.parseLong(parts[1]));
+            }
+        }, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 获取用户当前的会话代数
+     */
+    public long current(Long userId) {
+        Long cached = generations.get(userId, false);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = redisTemplate.opsForValue().get(GENERATION_PREFIX + userId);
+        long generation = value instanceof Number number ? number.longValue() : 0L;
+        advance(userId, generation);
+        return generation;
+    }
+
+    /**
+     * 递增用户的会话代数，使其已签发的令牌全部失效
+     */
+    public long bump(Long userId) {
+        Long generation = redisTemplate.opsForValue().increment(GENERATION_PREFIX + userId);
+        long value = generation != null ? generation : 0L;
+        advance(userId, value);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, userId + ":" + value);
+        } catch (Exception e) {
+            log.error("发布会话代数变更失败，用户ID: {}", userId, e);
+        }
+        log.info("递增用户会话代数，用户ID: {}, 代数: {}", userId, value);
+        return value;
+    }
+
+    /**
+     * 令牌的会话代数是否仍然有效
+     */
+    public boolean isCurrent(VerifiedToken verified) {
+        if (verified.userId() == null) {
+            return true;
+        }
+        try {
+            return verified.generation() >= current(verified.userId());
+        } catch (Exception e) {
+            log.error("获取用户会话代数失败，用户ID: {}", verified.userId(), e);
+            return true;
+        }
+    }
+
+    /**
+     * 以Redis中的代数确认令牌仍然有效，不使用本地缓存，读取失败按失效处理
+     */
+    public boolean isCurrentConfirmed(VerifiedToken verified) {
+        if (verified.userId() == null) {
+            return false;
+        }
+        try {
+            Object value = redisTemplate.opsForValue().get(GENERATION_PREFIX + verified.userId());
+            long generation = value instanceof Number number ? number.longValue() : 0L;
+            advance(verified.userId(), generation);
+            return verified.generation() >= generation;
+        } catch (Exception e) {
+            log.error("确认用户会话代数失败，按已失效处理，用户ID: {}", verified.userId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 本地代数只增不减
+     */
+    private void advance(Long userId, long generation) {
+        Long cached = generations.get(userId, false);
+        if (cached == null || cached < generation) {
+            generations.put(userId, generation, localTtl);
+        }
+    }
+}
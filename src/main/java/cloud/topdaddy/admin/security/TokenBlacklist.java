@@ -0,0 +1,212 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.config.JwtProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 令牌黑名单
+ * <p>
+ * 黑名单以令牌jti（旧令牌为摘要）为键保存在Redis中，各节点在本地维护一份布隆过滤器镜像：
+ * 新增条目通过发布订阅同步，定期扫描Redis重建过滤器以淘汰已过期的条目。
+ * 只有过滤器命中时才访问Redis确认，确认失败时按已拉黑处理；
+ * 首次同步成功前直接查询Redis。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenBlacklist {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final JwtProperties jwtProperties;
+
+    private static final String TOKEN_BLACKLIST_PREFIX = "jwt:blacklist:";
+    private static final String CHANNEL = "jwt:blacklist:events";
+    private static final Pattern ID_PATTERN = Pattern.compile("[0-9a-f]{32}|[0-9a-f]{64}");
+
+    private volatile RevocationBloomFilter filter;
+    private volatile RevocationBloomFilter rebuilding;
+    /**
+     * 写入过滤器与切换过滤器互斥，避免重建期间的新增条目丢失
+     */
+    private final Object filterLock = new Object();
+    private volatile boolean synced;
+
+    private final LongAdder filterMisses = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile long entryCount;
+
+    @PostConstruct
+    public void init() {
+        filter = newFilter();
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (body != null) {
+                mirror(body.toString());
+            }
+        }, new ChannelTopic(CHANNEL));
+
+        reconcile();
+    }
+
+    /**
+     * 检查令牌是否已被拉黑
+     */
+    public boolean isBlacklisted(VerifiedToken verified, String token) {
+        String id = verified.revocationId(token);
+        if (synced && !filter.mightContain(id)) {
+            filterMisses.increment();
+            return false;
+        }
+
+        filterHits.increment();
+        try {
+            boolean blacklisted = Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + id))
+                    || (verified.jti() == null && Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + token)));
+            if (!blacklisted && synced) {
+                falsePositives.increment();
+            }
+            return blacklisted;
+        } catch (Exception e) {
+            if (synced) {
+                log.error("确认令牌黑名单失败，按已拉黑处理", e);
+                return true;
+            }
+            log.error("检查令牌黑名单失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 将令牌加入黑名单，有效期为令牌剩余有效期
+     */
+    public void add(VerifiedToken verified, String token) {
+        long ttlMillis = verified.remainingMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        String id = verified.revocationId(token);
+        // 先写Redis再写本地：写入早于重建开始时会被扫描到，晚于重建开始时会写入新过滤器
+        redisTemplate.opsForValue().set(TOKEN_BLACKLIST_PREFIX + id, "blacklisted", ttlMillis, TimeUnit.MILLISECONDS);
+        mirror(id);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, id);
+        } catch (Exception e) {
+            log.error("发布令牌黑名单通知失败", e);
+        }
+    }
+
+    /**
+     * 原子地将一次性令牌加入黑名单，令牌已在黑名单中时返回false
+     * <p>
+     * 用于刷新令牌：并发重放时只有一个请求能成功占用，Redis不可用时抛出异常。
+     */
+    public boolean consume(VerifiedToken verified, String token) {
+        long ttlMillis = verified.remainingMillis();
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        String id = verified.revocationId(token);
+        if (verified.jti() == null && Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + token))) {
+            return false;
+        }
+        Boolean claimed = redisTemplate.opsForValue()
+                .setIfAbsent(TOKEN_BLACKLIST_PREFIX + id, "blacklisted", ttlMillis, TimeUnit.MILLISECONDS);
+        if (!Boolean.TRUE.equals(claimed)) {
+            return false;
+        }
+        mirror(id);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, id);
+        } catch (Exception e) {
+            log.error("发布令牌黑名单通知失败", e);
+        }
+        return true;
+    }
+
+    /**
+     * 扫描Redis重建本地过滤器，过期条目随之淘汰
+     */
+    public synchronized void reconcile() {
+        long startTime = System.currentTimeMillis();
+        RevocationBloomFilter fresh = newFilter();
+        synchronized (filterLock) {
+            rebuilding = fresh;
+        }
+        long count = 0;
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(TOKEN_BLACKLIST_PREFIX + "*")
+                .count(1000)
+                .build())) {
+            while (cursor.hasNext()) {
+                String suffix = cursor.next().substring(TOKEN_BLACKLIST_PREFIX.length());
+                // 兼容以完整令牌为键的旧条目
+                fresh.put(ID_PATTERN.matcher(suffix).matches() ? suffix : JwtTokenUtil.digest(suffix));
+                count++;
+            }
+            synchronized (filterLock) {
+                filter = fresh;
+                rebuilding = null;
+            }
+            entryCount = count;
+            synced = true;
+            log.debug("同步令牌黑名单完成，条目数: {}, 耗时: {}ms", count, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("同步令牌黑名单失败", e);
+        } finally {
+            synchronized (filterLock) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("synced", synced);
+        stats.put("entries", entryCount);
+        stats.put("bitSize", filter.bitSize());
+        stats.put("filterMisses", filterMisses.sum());
+        stats.put("filterHits", filterHits.sum());
+        stats.put("falsePositives", falsePositives.sum());
+        return stats;
+    }
+
+    /**
+     * 写入本地过滤器，重建期间同时写入新过滤器
+     */
+    private void mirror(String id) {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return;
+        }
+        synchronized (filterLock) {
+            filter.put(id);
+            RevocationBloomFilter pending = rebuilding;
+            if (pending != null) {
+                pending.put(id);
+            }
+        }
+    }
+
+    private RevocationBloomFilter newFilter() {
+        return new RevocationBloomFilter(jwtProperties.getBlacklistExpectedInsertions(), jwtProperties.getBlacklistFalsePositiveRate());
+    }
+}
@@ -5,9 +5,9 @@ import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Spring Security用户详情实现
@@ -65,9 +65,9 @@ public class UserDetailsImpl implements UserDetails {
     private Integer status;
 
     /**
-     * 权限列表
+     * 权限集合
      */
-    private List<String> permissions;
+    private PermissionSet permissionSet = PermissionSet.EMPTY;
 
     /**
      * 角色列表
@@ -76,7 +76,7 @@ public class UserDetailsImpl implements UserDetails {
 
     public UserDetailsImpl() {}
 
-    public UserDetailsImpl(SysUser user, List<String> permissions, List<String> roles) {
+    public UserDetailsImpl(SysUser user, PermissionSet permissionSet, List<String> roles) {
         this.userId = user.getId();
         this.username = user.getUsername();
         this.password = user.getPassword();
@@ -86,16 +86,29 @@ public class UserDetailsImpl implements UserDetails {
         this.avatar = user.getAvatar();
         this.gender = user.getGender();
         this.status = user.getStatus();
-        this.permissions = permissions;
+        this.permissionSet = permissionSet;
         this.roles = roles;
     }
 
+    /**
+     * 权限编码列表
+     */
+    public List<String> getPermissions() {
+        return permissionSet.toCodes();
+    }
+
+    /**
+     * 是否具有指定权限
+     */
+    public boolean hasPermission(String permissionCode) {
+        return permissionSet.contains(permissionCode);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // 将权限和角色都作为授权信息
-        List<GrantedAuthority> authorities = permissions.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = new ArrayList<>(permissionSet.size() + roles.size());
+        permissionSet.toCodes().forEach(code -> authorities.add(new SimpleGrantedAuthority(code)));
         
         // 添加角色权限（以ROLE_前缀标识）
         roles.stream()
@@ -21,6 +21,7 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final SysUserService userService;
+    private final AuthorizationEngine authorizationEngine;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -33,8 +34,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("用户不存在: " + username);
         }
 
-        // 查询用户权限
-        List<String> permissions = userService.getUserPermissions(user.getId());
+        // 从内存权限图获取用户权限
+        PermissionSet permissions = authorizationEngine.getPermissions(user.getId());
         
         // 查询用户角色
         List<String> roles = userService.getUserRoles(user.getId());
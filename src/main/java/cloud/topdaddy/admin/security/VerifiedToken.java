@@ -0,0 +1,55 @@
+package cloud.topdaddy.admin.security;
+
+/**
+ * 已验签的令牌声明
+ * <p>
+ * 由 {@link JwtTokenUtil#verify(String)} 一次解析生成，不可变，同一请求内的后续判断都基于此对象。
+ *
+ * @param userId    用户ID
+ * @param username  用户名
+ * @param type      令牌类型：access/refresh
+ * @param issuedAt  签发时间（毫秒）
+ * @param expiresAt 过期时间（毫秒）
+ * @param jti        令牌ID，旧令牌为null
+ * @param generation 签发时的用户会话代数
+ * @param sessionId  会话ID，旧令牌为null
+ * @author topdaddy
+ */
+public record VerifiedToken(Long userId, String username, String type, long issuedAt, long expiresAt,
+                            String jti, long generation, String sessionId) {
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    /**
+     * 剩余有效期（毫秒）
+     */
+    public long remainingMillis() {
+        return Math.max(0L, expiresAt - System.currentTimeMillis());
+    }
+
+    /**
+     * 吊销时使用的ID，旧令牌没有jti时使用令牌摘要
+     */
+    public String revocationId(String token) {
+        return jti != null ? jti : JwtTokenUtil.digest(token);
+    }
+
+    /**
+     * 是否为访问令牌
+     */
+    public boolean isAccessToken() {
+        return "access".equals(type);
+    }
+
+    /**
+     * 是否为刷新令牌
+     */
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
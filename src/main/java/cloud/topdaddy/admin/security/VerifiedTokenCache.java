@@ -0,0 +1,103 @@
+package cloud.topdaddy.admin.security;
+
+import cloud.topdaddy.admin.config.JwtProperties;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已验签令牌缓存
+ * <p>
+ * 以令牌的SHA-256摘要为键缓存 {@link VerifiedToken}，条目在令牌过期时同时失效，
+ * 超出容量时按LRU淘汰，同一令牌重复请求时无需再次验签。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final LRUCache<String, VerifiedToken> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejects = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(JwtTokenUtil jwtTokenUtil, JwtProperties jwtProperties) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.cache = CacheUtil.newLRUCache(jwtProperties.getVerifiedCacheSize());
+    }
+
+    /**
+     * 获取已验签的令牌，未命中时验签并缓存，无效令牌返回null
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = JwtTokenUtil.digest(token);
+        VerifiedToken cached = cache.get(digest, false);
+        if (cached != null && !cached.isExpired()) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        VerifiedToken verified = jwtTokenUtil.verify(token);
+        if (verified == null) {
+            rejects.increment();
+            return null;
+        }
+        long ttl = verified.remainingMillis();
+        if (ttl > 0) {
+            cache.put(digest, verified, ttl);
+        }
+        return verified;
+    }
+
+    /**
+     * 立即淘汰指定令牌
+     */
+    public void evict(String token) {
+        if (token == null) {
+            return;
+        }
+        String digest = JwtTokenUtil.digest(token);
+        if (cache.containsKey(digest)) {
+            cache.remove(digest);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.capacity());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("rejects", rejects.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0D : (double) hitCount / total);
+        return stats;
+    }
+}
@@ -1,10 +1,9 @@
 package cloud.topdaddy.admin.servcie;
 
-import cloud.topdaddy.admin.entity.SysPermission;
 import cloud.topdaddy.admin.entity.SysRole;
 import cloud.topdaddy.admin.entity.SysUser;
+import cloud.topdaddy.admin.security.PermissionSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * 缓存服务接口
@@ -31,12 +30,12 @@ public interface CacheService {
     /**
      * 缓存用户权限
      */
-    void cacheUserPermissions(Long userId, List<SysPermission> permissions);
+    void cacheUserPermissions(Long userId, PermissionSet permissions);
 
     /**
      * 获取缓存的用户权限
      */
-    List<SysPermission> getCachedUserPermissions(Long userId);
+    PermissionSet getCachedUserPermissions(Long userId);
 
     /**
      * 删除用户权限缓存
@@ -58,26 +57,6 @@ public interface CacheService {
      */
     void removeCachedUserRoles(Long userId);
 
-    /**
-     * 添加在线用户
-     */
-    void addOnlineUser(String token, Long userId);
-
-    /**
-     * 移除在线用户
-     */
-    void removeOnlineUser(String token);
-
-    /**
-     * 获取在线用户列表
-     */
-    Set<String> getOnlineUsers();
-
-    /**
-     * 检查用户是否在线
-     */
-    boolean isUserOnline(String token);
-
     /**
      * 强制用户下线
      */
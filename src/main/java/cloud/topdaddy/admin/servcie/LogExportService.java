@@ -0,0 +1,61 @@
+package cloud.topdaddy.admin.servcie;
+
+import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.exception.BusinessException;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 日志导出服务接口
+ * <p>
+ * 通过只进游标逐行写出，内存占用与导出行数无关。
+ *
+ * @author topdaddy
+ */
+public interface LogExportService {
+
+    /**
+     * 导出操作日志，过滤条件与分页查询一致
+     */
+    void exportOperationLogs(OutputStream out, Format format, String module, String type, String username,
+                             String startTime, String endTime) throws IOException;
+
+    /**
+     * 导出登录日志，过滤条件与分页查询一致
+     */
+    void exportLoginLogs(OutputStream out, Format format, String username, Integer status,
+                         String startTime, String endTime) throws IOException;
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw BusinessException.of(ResultCode.PARAM_ERROR, "不支持的导出格式: " + value);
+        }
+    }
+}
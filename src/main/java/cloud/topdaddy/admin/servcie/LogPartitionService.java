@@ -0,0 +1,37 @@
+package cloud.topdaddy.admin.servcie;
+
+import java.time.LocalDateTime;
+
+/**
+ * 日志分区维护服务接口
+ * <p>
+ * 操作日志和登录日志按月分区，定期预建未来分区，过期数据按分区整体删除。
+ *
+ * @author topdaddy
+ */
+public interface LogPartitionService {
+
+    String OPERATION_LOG_TABLE = "sys_operation_log";
+
+    String LOGIN_LOG_TABLE = "sys_login_log";
+
+    /**
+     * 为所有日志表预建未来分区
+     */
+    void ensureFuturePartitions();
+
+    /**
+     * 表是否已分区
+     */
+    boolean isPartitioned(String table);
+
+    /**
+     * 删除整体早于保留期的分区，返回删除的分区数
+     */
+    int dropExpiredPartitions(String table, int retentionDays);
+
+    /**
+     * 按保留天数计算热数据的最早时间，按月对齐
+     */
+    LocalDateTime retentionStart(int retentionDays);
+}
@@ -0,0 +1,46 @@
+package cloud.topdaddy.admin.servcie;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 日志统计计数服务接口
+ * <p>
+ * 日志写入数据库后按表、日期和状态累加本地计数，定期合并到Redis哈希中，
+ * 统计查询直接读取计数器，不再对日志表执行COUNT(*)；定期与数据库核对以修正偏差。
+ *
+ * @author topdaddy
+ */
+public interface LogStatsService {
+
+    /**
+     * 记录一条已写入的日志
+     */
+    void record(String table, LocalDateTime time, Integer status);
+
+    /**
+     * 立即把本地计数刷写到Redis
+     */
+    void flush();
+
+    /**
+     * 查询计数，day为null时为全表计数，status为null时为全部状态
+     */
+    long count(String table, LocalDate day, Integer status);
+
+    /**
+     * 获取仪表盘统计数据
+     */
+    Map<String, Object> getDashboardStats();
+
+    /**
+     * 用数据库中最近两个已封闭日期的实际数量修正按日计数，差值同步计入总数
+     */
+    void reconcileRecent();
+
+    /**
+     * 用数据库中已封闭日期的数量加上未封闭日期的计数修正总数
+     */
+    void reconcileTotals();
+}
@@ -0,0 +1,36 @@
+package cloud.topdaddy.admin.servcie;
+
+import cloud.topdaddy.admin.dto.LatencyStats;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import java.util.List;
+
+/**
+ * 操作日志小时汇总服务接口
+ * <p>
+ * 操作日志写入时按小时、请求方法、操作名称和用户在内存中累加调用次数、失败次数和耗时直方图，
+ * 定期合并到汇总表，耗时分位数从汇总表计算，不再扫描日志表。
+ *
+ * @author topdaddy
+ */
+public interface OperationRollupService {
+
+    /**
+     * 记录一条已写入的操作日志
+     */
+    void record(SysOperationLog operationLog);
+
+    /**
+     * 立即把内存中的汇总合并到汇总表
+     */
+    void flush();
+
+    /**
+     * 按请求方法统计最近若干小时的耗时分位数，按p99倒序
+     */
+    List<LatencyStats> getLatencyStats(int hours, Long userId, String method, int limit);
+
+    /**
+     * 删除超过保留天数的汇总数据，返回删除行数
+     */
+    int cleanExpired(int retentionDays);
+}
@@ -0,0 +1,34 @@
+package cloud.topdaddy.admin.servcie;
+
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+import java.util.Collection;
+
+/**
+ * 权限版本服务接口
+ * <p>
+ * 维护全局单调递增的权限版本号，变更通过Redis发布订阅通知所有节点。
+ *
+ * @author topdaddy
+ */
+public interface RbacEpochService {
+
+    /**
+     * 获取本节点已知的权限版本号
+     */
+    long currentEpoch();
+
+    /**
+     * 发布权限变更，存在事务时在提交后发布
+     */
+    void publish(RbacChangeEvent.Scope scope, Collection<Long> targetIds);
+
+    /**
+     * 处理收到的权限变更事件
+     */
+    void handleEvent(RbacChangeEvent event);
+
+    /**
+     * 与Redis中的权限版本号对账，弥补丢失的通知
+     */
+    void reconcile();
+}
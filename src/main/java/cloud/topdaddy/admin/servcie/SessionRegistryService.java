@@ -0,0 +1,60 @@
+package cloud.topdaddy.admin.servcie;
+
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.OnlineSession;
+import java.util.List;
+
+/**
+ * 会话注册服务接口
+ * <p>
+ * 每个会话保存一份详情，按用户维护会话索引，并以最后活跃时间为分值维护全局有序集合。
+ *
+ * @author topdaddy
+ */
+public interface SessionRegistryService {
+
+    /**
+     * 登录时注册会话，返回会话ID
+     */
+    String register(Long userId, String username, String loginIp);
+
+    /**
+     * 记录会话活跃，会话已移除时不做修改
+     */
+    void touch(Long userId, String sessionId);
+
+    /**
+     * 批量记录会话活跃，同时更新用户最后活跃时间
+     */
+    void touchAll(List<OnlineSession> activities);
+
+    /**
+     * 移除会话
+     */
+    void remove(Long userId, String sessionId);
+
+    /**
+     * 移除用户的全部会话，返回移除数量
+     */
+    int removeUserSessions(Long userId);
+
+    /**
+     * 按最后活跃时间倒序分页获取在线会话
+     */
+    CursorPage<OnlineSession> listSessions(String cursor, int size);
+
+    /**
+     * 获取用户的在线会话
+     */
+    List<OnlineSession> getUserSessions(Long userId);
+
+    /**
+     * 会话是否在线
+     */
+    boolean isOnline(Long userId, String sessionId);
+
+    /**
+     * 清理超过空闲时间的会话，返回清理数量
+     */
+    int pruneExpired();
+}
@@ -1,5 +1,6 @@
 package cloud.topdaddy.admin.servcie;
 
+import cloud.topdaddy.admin.dto.CursorPage;
 import cloud.topdaddy.admin.entity.SysLoginLog;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -18,6 +19,11 @@ public interface SysLoginLogService extends IService<SysLoginLog> {
                                      String username, Integer status,
                                      String startTime, String endTime);
 
+    /**
+     * 游标查询登录日志，按 (login_time, id) 倒序，不统计精确总数
+     */
+    CursorPage<SysLoginLog> listLoginLogs(String cursor, Integer size, String username, Integer status,
+                                          String startTime, String endTime, boolean withTotal);
 
     /**
      * 清理指定天数之前的日志
@@ -1,9 +1,12 @@
 package cloud.topdaddy.admin.servcie;
 
+import cloud.topdaddy.admin.dto.CursorPage;
 import cloud.topdaddy.admin.entity.SysOperationLog;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.Map;
+
 /**
  * 操作日志服务接口
  * 
@@ -18,6 +21,12 @@ public interface SysOperationLogService extends IService<SysOperationLog> {
                                            String module, String type, String username, 
                                            String startTime, String endTime);
 
+    /**
+     * 游标查询操作日志，按 (create_time, id) 倒序，不统计精确总数
+     */
+    CursorPage<SysOperationLog> listOperationLogs(String cursor, Integer size, String username,
+                                                  String startTime, String endTime, boolean withTotal);
+
     /**
      * 记录操作日志
      */
@@ -27,4 +36,14 @@ public interface SysOperationLogService extends IService<SysOperationLog> {
      * 清理过期日志
      */
     void cleanExpiredLogs(Integer days);
+
+    /**
+     * 在后台分批压缩迁移前的历史载荷，按ID从上次停止的位置继续，返回当前进度
+     */
+    Map<String, Object> compressLegacyLogs(Integer batchSize);
+
+    /**
+     * 查询历史载荷压缩进度
+     */
+    Map<String, Object> getCompressProgress();
 }
\ No newline at end of file
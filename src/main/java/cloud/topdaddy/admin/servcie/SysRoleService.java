@@ -1,5 +1,6 @@
 package cloud.topdaddy.admin.servcie;
 
+import cloud.topdaddy.admin.dto.AssignmentDiff;
 import cloud.topdaddy.admin.entity.SysRole;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -48,9 +49,9 @@ public interface SysRoleService extends IService<SysRole> {
     boolean updateRoleStatus(Long roleId, Integer status);
 
     /**
-     * 分配角色权限
+     * 分配角色权限，只写入与当前权限的差异，返回变更内容
      */
-    boolean assignPermissions(Long roleId, List<Long> permissionIds);
+    AssignmentDiff assignPermissions(Long roleId, List<Long> permissionIds);
 
     /**
      * 获取角色权限ID列表
@@ -1,11 +1,14 @@
 package cloud.topdaddy.admin.servcie;
 
+import cloud.topdaddy.admin.dto.AssignmentDiff;
+import cloud.topdaddy.admin.dto.CursorPage;
 import cloud.topdaddy.admin.dto.UserCreateRequest;
 import cloud.topdaddy.admin.dto.UserQueryRequest;
 import cloud.topdaddy.admin.dto.UserUpdateRequest;
 import cloud.topdaddy.admin.entity.SysUser;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +23,11 @@ public interface SysUserService extends IService<SysUser> {
      */
     IPage<SysUser> pageUsers(UserQueryRequest request);
 
+    /**
+     * 游标查询用户列表，按创建时间倒序，不统计精确总数
+     */
+    CursorPage<SysUser> listUsers(UserQueryRequest request, String cursor, boolean withTotal);
+
     /**
      * 根据用户名查询用户
      */
@@ -71,9 +79,19 @@ public interface SysUserService extends IService<SysUser> {
     boolean changePassword(Long userId, String oldPassword, String newPassword);
 
     /**
-     * 分配用户角色
+     * 分配用户角色，只写入与当前角色的差异，返回变更内容
+     */
+    AssignmentDiff assignRoles(Long userId, List<Long> roleIds);
+
+    /**
+     * 批量为用户授予角色，已有的关联保持不变，返回新增的关联数量
      */
-    boolean assignRoles(Long userId, List<Long> roleIds);
+    int grantRoles(Collection<Long> userIds, Collection<Long> roleIds, Long operatorId);
+
+    /**
+     * 批量撤销用户的角色，返回删除的关联数量
+     */
+    int revokeRoles(Collection<Long> userIds, Collection<Long> roleIds);
 
     /**
      * 获取用户权限列表
@@ -90,6 +108,11 @@ public interface SysUserService extends IService<SysUser> {
      */
     List<Long> getUserRoleIds(Long userId);
 
+    /**
+     * 批量填充用户的角色ID，withRoles为true时同时填充角色编码和名称，一次IN查询完成
+     */
+    void hydrateRoles(Collection<SysUser> users, boolean withRoles);
+
     /**
      * 更新用户最后登录信息
      */
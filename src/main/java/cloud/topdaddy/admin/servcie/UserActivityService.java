@@ -0,0 +1,26 @@
+package cloud.topdaddy.admin.servcie;
+
+/**
+ * 用户活跃记录服务接口
+ * <p>
+ * 登录信息和会话活跃时间先写入内存缓冲区，按用户/会话合并后定期批量写入数据库和Redis。
+ *
+ * @author topdaddy
+ */
+public interface UserActivityService {
+
+    /**
+     * 记录用户登录
+     */
+    void recordLogin(Long userId, String loginIp);
+
+    /**
+     * 记录会话活跃
+     */
+    void recordActivity(Long userId, String sessionId);
+
+    /**
+     * 立即刷写缓冲区
+     */
+    void flush();
+}
@@ -0,0 +1,52 @@
+package cloud.topdaddy.admin.servcie;
+
+import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.dto.ImportProgress;
+import cloud.topdaddy.admin.dto.ImportRowError;
+import cloud.topdaddy.admin.exception.BusinessException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 用户批量导入服务接口
+ * <p>
+ * 上传内容先落盘，再由后台任务逐行读取：按预加载的用户名、邮箱、手机号集合校验唯一性，
+ * 在有界线程池中并行加密密码，按批执行多行INSERT，并记录进度和逐行错误。
+ *
+ * @author topdaddy
+ */
+public interface UserImportService {
+
+    /**
+     * 提交导入任务，返回初始进度
+     */
+    ImportProgress submit(InputStream in, Format format, Long operatorId) throws IOException;
+
+    /**
+     * 查询导入进度
+     */
+    ImportProgress getProgress(String jobId);
+
+    /**
+     * 查询导入失败的行
+     */
+    List<ImportRowError> getErrors(String jobId);
+
+    /**
+     * 导入格式
+     */
+    enum Format {
+        CSV,
+        NDJSON;
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw BusinessException.of(ResultCode.PARAM_ERROR, "不支持的导入格式: " + value);
+        }
+    }
+}
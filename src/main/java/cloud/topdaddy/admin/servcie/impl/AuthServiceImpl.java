@@ -1,5 +1,6 @@
 package cloud.topdaddy.admin.servcie.impl;
 
+import cloud.topdaddy.admin.audit.AuditLogWriter;
 import cloud.topdaddy.admin.common.ResultCode;
 import cloud.topdaddy.admin.dto.LoginRequest;
 import cloud.topdaddy.admin.entity.SysLoginLog;
@@ -7,10 +8,14 @@ import cloud.topdaddy.admin.entity.SysUser;
 import cloud.topdaddy.admin.exception.BusinessException;
 import cloud.topdaddy.admin.security.JwtAuthenticationFilter;
 import cloud.topdaddy.admin.security.JwtTokenUtil;
+import cloud.topdaddy.admin.security.SessionGenerationRegistry;
+import cloud.topdaddy.admin.security.TokenBlacklist;
 import cloud.topdaddy.admin.security.UserDetailsImpl;
+import cloud.topdaddy.admin.security.VerifiedToken;
 import cloud.topdaddy.admin.servcie.AuthService;
-import cloud.topdaddy.admin.servcie.SysLoginLogService;
+import cloud.topdaddy.admin.servcie.SessionRegistryService;
 import cloud.topdaddy.admin.servcie.SysUserService;
+import cloud.topdaddy.admin.servcie.UserActivityService;
 import cloud.topdaddy.admin.utils.IpUtil;
 import cn.hutool.captcha.CaptchaUtil;
 import cn.hutool.captcha.LineCaptcha;
@@ -47,8 +52,12 @@ public class AuthServiceImpl implements AuthService {
     private final JwtTokenUtil jwtTokenUtil;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final SysUserService userService;
-    private final SysLoginLogService loginLogService;
+    private final AuditLogWriter auditLogWriter;
+    private final SessionRegistryService sessionRegistryService;
+    private final UserActivityService userActivityService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final SessionGenerationRegistry sessionGenerations;
+    private final TokenBlacklist tokenBlacklist;
 
     private static final String CAPTCHA_PREFIX = "captcha:";
     private static final long CAPTCHA_EXPIRE_TIME = 5; // 验证码过期时间（分钟）
@@ -80,12 +89,13 @@ public class AuthServiceImpl implements AuthService {
                 throw BusinessException.of(ResultCode.ACCOUNT_DISABLED);
             }
 
-            // 生成令牌
-            String accessToken = jwtTokenUtil.generateAccessToken(userDetails.getUserId(), userDetails.getUsername());
-            String refreshToken = jwtTokenUtil.generateRefreshToken(userDetails.getUserId(), userDetails.getUsername());
+            // 注册会话并生成令牌
+            String sessionId = sessionRegistryService.register(userDetails.getUserId(), userDetails.getUsername(), clientIp);
+            String accessToken = jwtTokenUtil.generateAccessToken(userDetails.getUserId(), userDetails.getUsername(), sessionId);
+            String refreshToken = jwtTokenUtil.generateRefreshToken(userDetails.getUserId(), userDetails.getUsername(), sessionId);
 
-            // 更新用户最后登录信息
-            userService.updateLastLoginInfo(userDetails.getUserId(), clientIp);
+            // 记录最后登录信息，异步批量写入
+            userActivityService.recordLogin(userDetails.getUserId(), clientIp);
 
             // 记录登录日志
             recordLoginLog(request.getUsername(), clientIp, 1, "登录成功");
@@ -117,6 +127,12 @@ public class AuthServiceImpl implements AuthService {
                 // 将令牌加入黑名单
                 jwtAuthenticationFilter.addTokenToBlacklist(token);
                 
+                // 移除会话
+                VerifiedToken verified = jwtTokenUtil.verify(token);
+                if (verified != null && verified.userId() != null && verified.sessionId() != null) {
+                    sessionRegistryService.remove(verified.userId(), verified.sessionId());
+                }
+                
                 // 清除安全上下文
                 SecurityContextHolder.clearContext();
                 
@@ -133,20 +149,31 @@ public class AuthServiceImpl implements AuthService {
     public Map<String, Object> refreshToken(String refreshToken) {
         try {
             // 验证刷新令牌
-            if (!jwtTokenUtil.isValidTokenFormat(refreshToken) || !jwtTokenUtil.isRefreshToken(refreshToken)) {
+            VerifiedToken verified = jwtTokenUtil.verify(refreshToken);
+            if (verified == null || !verified.isRefreshToken()) {
                 throw BusinessException.of(ResultCode.TOKEN_INVALID, "刷新令牌无效");
             }
 
-            String username = jwtTokenUtil.getUsernameFromToken(refreshToken);
-            Long userId = jwtTokenUtil.getUserIdFromToken(refreshToken);
+            // 验证令牌是否过期
+            if (verified.isExpired()) {
+                throw BusinessException.of(ResultCode.TOKEN_EXPIRED, "刷新令牌已过期");
+            }
 
-            if (!StringUtils.hasText(username) || userId == null) {
-                throw BusinessException.of(ResultCode.TOKEN_INVALID, "刷新令牌无效");
+            // 强制下线或登出后的旧令牌不能再换取新令牌，代数以Redis为准
+            if (!sessionGenerations.isCurrentConfirmed(verified)) {
+                throw BusinessException.of(ResultCode.TOKEN_INVALID, "刷新令牌已失效");
             }
 
-            // 验证令牌是否过期
-            if (jwtTokenUtil.isTokenExpired(refreshToken)) {
-                throw BusinessException.of(ResultCode.TOKEN_EXPIRED, "刷新令牌已过期");
+            // 刷新令牌只能使用一次，占用失败说明已被使用或已拉黑
+            if (!tokenBlacklist.consume(verified, refreshToken)) {
+                throw BusinessException.of(ResultCode.TOKEN_INVALID, "刷新令牌已失效");
+            }
+
+            String username = verified.username();
+            Long userId = verified.userId();
+
+            if (!StringUtils.hasText(username) || userId == null) {
+                throw BusinessException.of(ResultCode.TOKEN_INVALID, "刷新令牌无效");
             }
 
             // 验证用户是否存在且有效
@@ -155,12 +182,21 @@ public class AuthServiceImpl implements AuthService {
                 throw BusinessException.of(ResultCode.USER_NOT_FOUND, "用户不存在或已禁用");
             }
 
-            // 生成新的访问令牌
-            String newAccessToken = jwtTokenUtil.generateAccessToken(userId, username);
-            String newRefreshToken = jwtTokenUtil.generateRefreshToken(userId, username);
+            // 沿用原会话，旧令牌没有会话时重新注册
+            String sessionId = verified.sessionId();
+            if (sessionId == null) {
+                sessionId = sessionRegistryService.register(userId, username, getClientIp());
+            } else {
+                // 已登出或被踢下线的会话不能通过刷新恢复
+                if (!sessionRegistryService.isOnline(userId, sessionId)) {
+                    throw BusinessException.of(ResultCode.TOKEN_INVALID, "会话已失效，请重新登录");
+                }
+                sessionRegistryService.touch(userId, sessionId);
+            }
 
-            // 将旧的刷新令牌加入黑名单
-            jwtAuthenticationFilter.addTokenToBlacklist(refreshToken);
+            // 生成新的访问令牌
+            String newAccessToken = jwtTokenUtil.generateAccessToken(userId, username, sessionId);
+            String newRefreshToken = jwtTokenUtil.generateRefreshToken(userId, username, sessionId);
 
             Map<String, Object> result = new HashMap<>();
             result.put("accessToken", newAccessToken);
@@ -267,7 +303,7 @@ public class AuthServiceImpl implements AuthService {
             }
             loginLog.setMessage(message);
             loginLog.setUserAgent(getUserAgent());
-            loginLogService.save(loginLog);
+            auditLogWriter.submitLoginLog(loginLog);
         } catch (Exception e) {
             log.error("记录登录日志失败", e);
         }
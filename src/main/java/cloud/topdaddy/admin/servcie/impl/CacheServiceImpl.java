@@ -1,9 +1,11 @@
 package cloud.topdaddy.admin.servcie.impl;
 
-import cloud.topdaddy.admin.entity.SysPermission;
 import cloud.topdaddy.admin.entity.SysRole;
 import cloud.topdaddy.admin.entity.SysUser;
+import cloud.topdaddy.admin.security.PermissionSet;
+import cloud.topdaddy.admin.security.SessionGenerationRegistry;
 import cloud.topdaddy.admin.servcie.CacheService;
+import cloud.topdaddy.admin.servcie.SessionRegistryService;
 import com.alibaba.fastjson2.JSON;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +15,6 @@ import org.springframework.util.CollectionUtils;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * 缓存服务实现类
@@ -26,12 +27,13 @@ import java.util.stream.Collectors;
 public class CacheServiceImpl implements CacheService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final SessionGenerationRegistry sessionGenerations;
+    private final SessionRegistryService sessionRegistryService;
 
     // 缓存键前缀
     private static final String USER_TOKEN_PREFIX = "rbac:user:token:";
     private static final String USER_PERMISSIONS_PREFIX = "rbac:user:permissions:";
     private static final String USER_ROLES_PREFIX = "rbac:user:roles:";
-    private static final String ONLINE_USERS_KEY = "rbac:online:users";
     
     // 缓存过期时间（秒）
     private static final long USER_CACHE_EXPIRE = 7200; // 2小时
@@ -75,10 +77,11 @@ public class CacheServiceImpl implements CacheService {
     }
 
     @Override
-    public void cacheUserPermissions(Long userId, List<SysPermission> permissions) {
+    public void cacheUserPermissions(Long userId, PermissionSet permissions) {
         try {
+            // 权限ID仅在本节点有效，Redis中保存权限编码
             String key = USER_PERMISSIONS_PREFIX + userId;
-            redisTemplate.opsForValue().set(key, JSON.toJSONString(permissions), PERMISSION_CACHE_EXPIRE, TimeUnit.SECONDS);
+            redisTemplate.opsForValue().set(key, JSON.toJSONString(permissions.toCodes()), PERMISSION_CACHE_EXPIRE, TimeUnit.SECONDS);
             log.debug("缓存用户权限成功，用户ID: {}, 权限数量: {}", userId, permissions.size());
         } catch (Exception e) {
             log.error("缓存用户权限失败，用户ID: {}", userId, e);
@@ -86,12 +89,12 @@ public class CacheServiceImpl implements CacheService {
     }
 
     @Override
-    public List<SysPermission> getCachedUserPermissions(Long userId) {
+    public PermissionSet getCachedUserPermissions(Long userId) {
         try {
             String key = USER_PERMISSIONS_PREFIX + userId;
             Object value = redisTemplate.opsForValue().get(key);
             if (value != null) {
-                return JSON.parseArray(value.toString(), SysPermission.class);
+                return PermissionSet.of(JSON.parseArray(value.toString(), String.class));
             }
         } catch (Exception e) {
             log.error("获取缓存用户权限失败，用户ID: {}", userId, e);
@@ -146,64 +149,14 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
-    @Override
-    public void addOnlineUser(String token, Long userId) {
-        try {
-            redisTemplate.opsForHash().put(ONLINE_USERS_KEY, token, userId.toString());
-            log.debug("添加在线用户成功，用户ID: {}, Token: {}", userId, token);
-        } catch (Exception e) {
-            log.error("添加在线用户失败，用户ID: {}", userId, e);
-        }
-    }
-
-    @Override
-    public void removeOnlineUser(String token) {
-        try {
-            redisTemplate.opsForHash().delete(ONLINE_USERS_KEY, token);
-            log.debug("移除在线用户成功，Token: {}", token);
-        } catch (Exception e) {
-            log.error("移除在线用户失败，Token: {}", token, e);
-        }
-    }
-
-    @Override
-    public Set<String> getOnlineUsers() {
-        try {
-            Set<Object> keys = redisTemplate.opsForHash().keys(ONLINE_USERS_KEY);
-            return keys.stream()
-                    .map(Object::toString)
-                    .collect(Collectors.toSet());
-        } catch (Exception e) {
-            log.error("获取在线用户列表失败", e);
-            return Set.of();
-        }
-    }
-
-    @Override
-    public boolean isUserOnline(String token) {
-        try {
-            return redisTemplate.opsForHash().hasKey(ONLINE_USERS_KEY, token);
-        } catch (Exception e) {
-            log.error("检查用户在线状态失败，Token: {}", token, e);
-            return false;
-        }
-    }
-
     @Override
     public void forceUserOffline(Long userId) {
         try {
-            // 获取所有在线用户
-            Set<String> onlineTokens = getOnlineUsers();
+            // 递增会话代数，该用户已签发的令牌全部失效
+            sessionGenerations.bump(userId);
             
-            for (String token : onlineTokens) {
-                Object cachedUserId = redisTemplate.opsForHash().get(ONLINE_USERS_KEY, token);
-                if (cachedUserId != null && userId.toString().equals(cachedUserId.toString())) {
-                    // 移除在线状态
-                    removeOnlineUser(token);
-                    // 删除用户缓存
-                    removeCachedUser(token);
-                }
-            }
+            // 移除该用户的会话索引
+            sessionRegistryService.removeUserSessions(userId);
             
             // 清除用户相关缓存
             refreshUserCache(userId);
@@ -217,7 +170,8 @@ public class CacheServiceImpl implements CacheService {
     @Override
     public void cleanExpiredCache() {
         try {
-            // Redis会自动清理过期的键，这里可以添加一些自定义的清理逻辑
+            // Redis会自动清理过期的键，会话索引需要按最后活跃时间清理
+            sessionRegistryService.pruneExpired();
             log.debug("清理过期缓存完成");
         } catch (Exception e) {
             log.error("清理过期缓存失败", e);
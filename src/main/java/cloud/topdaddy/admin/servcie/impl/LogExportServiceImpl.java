@@ -0,0 +1,217 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.archive.LogArchiveStore;
+import cloud.topdaddy.admin.entity.SysLoginLog;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import cloud.topdaddy.admin.mapper.SysLoginLogMapper;
+import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
+import cloud.topdaddy.admin.servcie.LogExportService;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import com.alibaba.fastjson2.JSON;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 日志导出服务实现类
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogExportServiceImpl implements LogExportService {
+
+    private final SysOperationLogMapper operationLogMapper;
+    private final SysLoginLogMapper loginLogMapper;
+    private final LogArchiveStore logArchiveStore;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final List<String> OPERATION_LOG_HEADER = List.of("ID", "链路追踪ID", "用户ID", "用户名", "操作名称",
+            "请求方法", "请求参数", "返回结果", "IP地址", "操作地点", "用户代理", "操作状态", "错误消息", "执行时间(毫秒)", "创建时间");
+
+    private static final List<String> LOGIN_LOG_HEADER = List.of("ID", "用户名", "IP地址", "登录地点", "用户代理",
+            "登录状态", "提示消息", "登录时间");
+
+    /**
+     * 只读事务，游标在事务内保持打开
+     */
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void exportOperationLogs(OutputStream out, Format format, String module, String type, String username,
+                                    String startTime, String endTime) throws IOException {
+        LocalDateTime start = parseStart(startTime);
+        LocalDateTime end = parseEnd(endTime);
+        // 归档水位之前的数据从归档读取
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.OPERATION_LOG_TABLE);
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+
+        RowWriter<SysOperationLog> rowWriter = new RowWriter<>(out, format, OPERATION_LOG_HEADER, row -> List.of(
+                row.getId(), row.getTraceId(), row.getUserId(), row.getUsername(), row.getOperation(),
+                row.getMethod(), row.getParams(), row.getResult(), row.getIp(), row.getLocation(),
+                row.getUserAgent(), row.getStatus(), row.getErrorMsg(), row.getCostTime(), row.getCreateTime()));
+        rowWriter.writeHeader();
+
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Cursor<SysOperationLog> cursor = operationLogMapper.selectExportCursor(
+                    module, type, username, dbStart, end)) {
+                cursor.forEach(rowWriter::write);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // 开始时间早于归档水位时续接归档数据
+        if (start != null && archivedUntil != null && start.isBefore(archivedUntil)) {
+            LocalDateTime archiveEnd = end != null && end.isBefore(archivedUntil) ? end.plusSeconds(1) : archivedUntil;
+            logArchiveStore.scan(LogPartitionService.OPERATION_LOG_TABLE, SysOperationLog.class,
+                    SysOperationLog::getCreateTime, start, archiveEnd,
+                    row -> contains(row.getMethod(), module) && contains(row.getOperation(), type)
+                            && contains(row.getUsername(), username),
+                    rowWriter::write);
+        }
+        rowWriter.flush();
+        log.info("导出操作日志完成，格式: {}, 行数: {}", format, rowWriter.rows);
+    }
+
+    @Override
+    public void exportLoginLogs(OutputStream out, Format format, String username, Integer status,
+                                String startTime, String endTime) throws IOException {
+        LocalDateTime start = parseStart(startTime);
+        LocalDateTime end = parseEnd(endTime);
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.LOGIN_LOG_TABLE);
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+
+        RowWriter<SysLoginLog> rowWriter = new RowWriter<>(out, format, LOGIN_LOG_HEADER, row -> List.of(
+                row.getId(), row.getUsername(), row.getIp(), row.getLocation(), row.getUserAgent(),
+                row.getStatus(), row.getMessage(), row.getLoginTime()));
+        rowWriter.writeHeader();
+
+        readOnlyTemplate.executeWithoutResult(transactionStatus -> {
+            try (Cursor<SysLoginLog> cursor = loginLogMapper.selectExportCursor(username, status, dbStart, end)) {
+                cursor.forEach(rowWriter::write);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        if (start != null && archivedUntil != null && start.isBefore(archivedUntil)) {
+            LocalDateTime archiveEnd = end != null && end.isBefore(archivedUntil) ? end.plusSeconds(1) : archivedUntil;
+            logArchiveStore.scan(LogPartitionService.LOGIN_LOG_TABLE, SysLoginLog.class,
+                    SysLoginLog::getLoginTime, start, archiveEnd,
+                    row -> contains(row.getUsername(), username) && (status == null || status.equals(row.getStatus())),
+                    rowWriter::write);
+        }
+        rowWriter.flush();
+        log.info("导出登录日志完成，格式: {}, 行数: {}", format, rowWriter.rows);
+    }
+
+    private static LocalDateTime parseStart(String startTime) {
+        return StringUtils.hasText(startTime)
+                ? LocalDateTime.parse(startTime + " 00:00:00", DATE_TIME_FORMAT) : null;
+    }
+
+    private static LocalDateTime parseEnd(String endTime) {
+        return StringUtils.hasText(endTime)
+                ? LocalDateTime.parse(endTime + " 23:59:59", DATE_TIME_FORMAT) : null;
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return !StringUtils.hasText(keyword) || (value != null && value.contains(keyword));
+    }
+
+    /**
+     * 按格式逐行写出
+     */
+    private static final class RowWriter<T> {
+
+        private final Writer writer;
+        private final Format format;
+        private final List<String> header;
+        private final Function<T, List<Object>> columns;
+        private long rows;
+
+        private RowWriter(OutputStream out, Format format, List<String> header, Function<T, List<Object>> columns) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.format = format;
+            this.header = header;
+            this.columns = columns;
+        }
+
+        private void writeHeader() throws IOException {
+            if (format == Format.CSV) {
+                // BOM便于Excel识别UTF-8
+                writer.write('\uFEFF');
+                writeCsvLine(List.copyOf(header));
+            }
+        }
+
+        private void write(T row) {
+            try {
+                if (format == Format.CSV) {
+                    writeCsvLine(columns.apply(row));
+                } else {
+                    writer.write(JSON.toJSONString(row));
+                    writer.write('\n');
+                }
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("写出日志失败", e);
+            }
+        }
+
+        private void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeCsvLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String csvValue(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof LocalDateTime time ? time.format(DATE_TIME_FORMAT) : value.toString();
+            // 防止表格软件把内容当作公式执行
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.archive.LogArchiveStore;
+import cloud.topdaddy.admin.config.LogPartitionProperties;
+import cloud.topdaddy.admin.mapper.LogPartitionMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * 日志分区维护服务实现类
+ * <p>
+ * 分区命名为 {@code pYYYYMM}，上界为下月1日，另有兜底分区 {@code pmax}。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogPartitionServiceImpl implements LogPartitionService {
+
+    private final LogPartitionMapper logPartitionMapper;
+    private final LogPartitionProperties logPartitionProperties;
+    private final LogArchiveStore logArchiveStore;
+
+    private static final String PARTITION_PREFIX = "p";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Override
+    public void ensureFuturePartitions() {
+        for (String table : List.of(OPERATION_LOG_TABLE, LOGIN_LOG_TABLE)) {
+            try {
+                ensureFuturePartitions(table);
+            } catch (Exception e) {
+                log.error("预建日志分区失败，表: {}", table, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isPartitioned(String table) {
+        return logPartitionMapper.selectPartitionNames(table).contains(MAX_PARTITION);
+    }
+
+    @Override
+    public int dropExpiredPartitions(String table, int retentionDays) {
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        int dropped = 0;
+        // 分区的下界是前一个分区的上界，第一个分区包含上界之前的全部历史数据
+        LocalDateTime lowerBound = null;
+        for (String partition : logPartitionMapper.selectPartitionNames(table)) {
+            YearMonth month = parseMonth(partition);
+            // 分区上界不晚于截止日期时，分区内全部数据都已过期
+            if (month == null || month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            LocalDateTime upperBound = month.plusMonths(1).atDay(1).atStartOfDay();
+            // 先归档，归档失败时保留分区
+            if (logArchiveStore.isEnabled()) {
+                logArchiveStore.archive(table, lowerBound, upperBound);
+            }
+            lowerBound = upperBound;
+            logPartitionMapper.dropPartition(table, partition);
+            dropped++;
+            log.info("删除过期日志分区，表: {}, 分区: {}", table, partition);
+        }
+        return dropped;
+    }
+
+    @Override
+    public LocalDateTime retentionStart(int retentionDays) {
+        // 按月对齐，与分区边界一致
+        return YearMonth.from(LocalDate.now().minusDays(retentionDays)).atDay(1).atStartOfDay();
+    }
+
+    private void ensureFuturePartitions(String table) {
+        List<String> partitions = logPartitionMapper.selectPartitionNames(table);
+        if (!partitions.contains(MAX_PARTITION)) {
+            log.debug("表未分区，跳过预建分区: {}", table);
+            return;
+        }
+        YearMonth latest = partitions.stream()
+                .map(LogPartitionServiceImpl::parseMonth)
+                .filter(month -> month != null)
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now().minusMonths(1));
+        YearMonth target = YearMonth.now().plusMonths(logPartitionProperties.getFutureMonths());
+        for (YearMonth month = latest.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            String partition = PARTITION_PREFIX + month.format(PARTITION_FORMAT);
+            logPartitionMapper.addPartition(table, partition, month.plusMonths(1).atDay(1).toString());
+            log.info("预建日志分区，表: {}, 分区: {}", table, partition);
+        }
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (partition == null || MAX_PARTITION.equals(partition) || !partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
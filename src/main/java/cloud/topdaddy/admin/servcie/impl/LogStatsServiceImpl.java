@@ -0,0 +1,374 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.config.LogStatsProperties;
+import cloud.topdaddy.admin.dto.StatusCount;
+import cloud.topdaddy.admin.mapper.SysLoginLogMapper;
+import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import cloud.topdaddy.admin.servcie.LogStatsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 日志统计计数服务实现类
+ * <p>
+ * 计数键为 rbac:stats:log:{表名}:{yyyyMMdd|total}，哈希字段为日志状态。
+ * 未封闭的日期仍可能有其他节点未刷写的增量或已入库但尚未计数的日志，核对只针对已封闭的日期，
+ * 并以WATCH乐观事务按差值修正，不覆盖其他节点并发写入的计数。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogStatsServiceImpl implements LogStatsService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SysOperationLogMapper operationLogMapper;
+    private final SysLoginLogMapper loginLogMapper;
+    private final LogStatsProperties logStatsProperties;
+
+    private static final String STATS_PREFIX = "rbac:stats:log:";
+    private static final String TOTAL = "total";
+    private static final String UNKNOWN_STATUS = "unknown";
+    private static final Integer STATUS_SUCCESS = 1;
+    private static final Integer STATUS_FAILED = 0;
+    private static final int RECONCILE_ATTEMPTS = 5;
+
+    /**
+     * 计数键 -> 状态 -> 未刷写的增量
+     */
+    private final Map<String, Map<String, LongAdder>> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-stats-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = logStatsProperties.getFlushInterval();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public void record(String table, LocalDateTime time, Integer status) {
+        LocalDate day = (time != null ? time : LocalDateTime.now()).toLocalDate();
+        String field = statusField(status);
+        add(dayKey(table, day), field, 1L);
+        add(totalKey(table), field, 1L);
+    }
+
+    @Override
+    public synchronized void flush() {
+        Map<String, Map<String, Long>> deltas = drainPending();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    deltas.forEach((key, fields) -> {
+                        fields.forEach((field, delta) -> ops.opsForHash().increment(key, field, delta));
+                        if (!key.endsWith(TOTAL)) {
+                            ops.expire(key, logStatsProperties.getDayRetentionDays(), TimeUnit.DAYS);
+                        }
+                    });
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            // 增量放回本地，下一轮重试
+            deltas.forEach((key, fields) -> fields.forEach((field, delta) -> add(key, field, delta)));
+            throw e;
+        }
+    }
+
+    @Override
+    public long count(String table, LocalDate day, Integer status) {
+        String key = day != null ? dayKey(table, day) : totalKey(table);
+        Map<String, Long> counts = readCounts(List.of(key)).get(key);
+        return sum(counts, status);
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        LocalDate today = LocalDate.now();
+        List<String> keys = new ArrayList<>(4);
+        for (String table : tables()) {
+            keys.add(dayKey(table, today));
+            keys.add(totalKey(table));
+        }
+        Map<String, Map<String, Long>> counts = readCounts(keys);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("date", today.toString());
+        stats.put("operationLog", tableStats(counts, LogPartitionService.OPERATION_LOG_TABLE, today));
+        stats.put("loginLog", tableStats(counts, LogPartitionService.LOGIN_LOG_TABLE, today));
+        return stats;
+    }
+
+    @Override
+    public synchronized void reconcileRecent() {
+        // 持有刷写锁，核对期间的新增计数留在本地，核对完成后再合并
+        flush();
+        LocalDate firstOpenDay = firstOpenDay();
+        for (String table : tables()) {
+            for (LocalDate day : List.of(firstOpenDay.minusDays(2), firstOpenDay.minusDays(1))) {
+                Map<String, Long> counts = toFields(countByStatus(table, day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+                reconcileDay(dayKey(table, day), totalKey(table), counts);
+            }
+        }
+        log.debug("核对近两日日志计数完成");
+    }
+
+    @Override
+    public synchronized void reconcileTotals() {
+        flush();
+        LocalDate firstOpenDay = firstOpenDay();
+        List<String> openDayKeys = new ArrayList<>();
+        for (String table : tables()) {
+            openDayKeys.clear();
+            for (LocalDate day = firstOpenDay; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+                openDayKeys.add(dayKey(table, day));
+            }
+            Map<String, Long> closed = toFields(countByStatus(table, null, firstOpenDay.atStartOfDay()));
+            reconcileTotal(totalKey(table), openDayKeys, closed);
+        }
+        log.info("核对日志总数计数完成");
+    }
+
+    /**
+     * 第一个未封闭的日期，此前的日期不会再有新的计数
+     */
+    private LocalDate firstOpenDay() {
+        return LocalDateTime.now().minusNanos(logStatsProperties.getCloseGrace() * 1_000_000L).toLocalDate();
+    }
+
+    private Map<String, Object> tableStats(Map<String, Map<String, Long>> counts, String table, LocalDate today) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("today", statusStats(counts.get(dayKey(table, today))));
+        stats.put("total", statusStats(counts.get(totalKey(table))));
+        return stats;
+    }
+
+    private Map<String, Long> statusStats(Map<String, Long> counts) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("count", sum(counts, null));
+        stats.put("success", sum(counts, STATUS_SUCCESS));
+        stats.put("failed", sum(counts, STATUS_FAILED));
+        return stats;
+    }
+
+    /**
+     * 读取Redis中的计数并叠加本节点尚未刷写的增量
+     */
+    private Map<String, Map<String, Long>> readCounts(List<String> keys) {
+        List<Object> entries = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                keys.forEach(key -> ops.opsForHash().entries(key));
+                return null;
+            }
+        });
+
+        Map<String, Map<String, Long>> result = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            Map<String, Long> counts = new HashMap<>();
+            if (entries.get(i) instanceof Map<?, ?> remote) {
+                remote.forEach((field, value) -> counts.put(String.valueOf(field), Long.parseLong(String.valueOf(value))));
+            }
+            Map<String, LongAdder> local = pending.get(keys.get(i));
+            if (local != null) {
+                local.forEach((field, adder) -> counts.merge(field, adder.sum(), Long::sum));
+            }
+            result.put(keys.get(i), counts);
+        }
+        return result;
+    }
+
+    /**
+     * 以数据库数量替换已封闭日期的计数，并把替换前后的差值计入总数
+     */
+    private void reconcileDay(String dayKey, String totalKey, Map<String, Long> counts) {
+        Map<String, String> fields = new HashMap<>();
+        counts.forEach((field, count) -> fields.put(field, String.valueOf(count)));
+        executeWatched(List.of(dayKey, totalKey), ops -> {
+            Map<String, Long> current = readHash(ops, dayKey);
+            ops.multi();
+            for (String field : union(counts, current)) {
+                long delta = counts.getOrDefault(field, 0L) - current.getOrDefault(field, 0L);
+                if (delta != 0) {
+                    ops.opsForHash().increment(totalKey, field, delta);
+                }
+            }
+            ops.delete(dayKey);
+            if (!fields.isEmpty()) {
+                ops.opsForHash().putAll(dayKey, fields);
+                ops.expire(dayKey, logStatsProperties.getDayRetentionDays(), TimeUnit.DAYS);
+            }
+        });
+    }
+
+    /**
+     * 总数应为已封闭日期的数据库数量加上未封闭日期的计数，按差值修正
+     */
+    private void reconcileTotal(String totalKey, List<String> openDayKeys, Map<String, Long> closed) {
+        List<String> watched = new ArrayList<>(openDayKeys);
+        watched.add(totalKey);
+        executeWatched(watched, ops -> {
+            Map<String, Long> current = readHash(ops, totalKey);
+            Map<String, Long> expected = new HashMap<>(closed);
+            openDayKeys.forEach(key -> readHash(ops, key).forEach((field, count) -> expected.merge(field, count, Long::sum)));
+            ops.multi();
+            for (String field : union(expected, current)) {
+                long delta = expected.getOrDefault(field, 0L) - current.getOrDefault(field, 0L);
+                if (delta != 0) {
+                    ops.opsForHash().increment(totalKey, field, delta);
+                }
+            }
+            // 保证事务非空，便于区分提交成功与被WATCH中止
+            ops.opsForHash().size(totalKey);
+        });
+    }
+
+    /**
+     * 在WATCH下读取并提交事务，被并发写入中止时重试
+     */
+    private void executeWatched(List<String> keys, Consumer<RedisOperations<String, String>> body) {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            List<Object> result = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.watch(keys);
+                    body.accept(ops);
+                    return ops.exec();
+                }
+            });
+            if (!CollectionUtils.isEmpty(result)) {
+                return;
+            }
+            log.debug("核对日志计数时发生并发写入，重试第{}次: {}", attempt, keys);
+        }
+        log.warn("核对日志计数多次被并发写入中止，跳过本轮: {}", keys);
+    }
+
+    private static Map<String, Long> readHash(RedisOperations<String, String> ops, String key) {
+        Map<String, Long> counts = new HashMap<>();
+        ops.<String, String>opsForHash().entries(key).forEach((field, value) -> counts.put(field, Long.parseLong(value)));
+        return counts;
+    }
+
+    private static Set<String> union(Map<String, Long> left, Map<String, Long> right) {
+        Set<String> fields = new HashSet<>(left.keySet());
+        fields.addAll(right.keySet());
+        return fields;
+    }
+
+    private static Map<String, Long> toFields(List<StatusCount> counts) {
+        Map<String, Long> fields = new HashMap<>();
+        counts.forEach(count -> fields.merge(statusField(count.getStatus()), count.getCount(), Long::sum));
+        return fields;
+    }
+
+    private List<StatusCount> countByStatus(String table, LocalDateTime startTime, LocalDateTime endTime) {
+        return LogPartitionService.OPERATION_LOG_TABLE.equals(table)
+                ? operationLogMapper.countByStatus(startTime, endTime)
+                : loginLogMapper.countByStatus(startTime, endTime);
+    }
+
+    private Map<String, Map<String, Long>> drainPending() {
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        pending.forEach((key, fields) -> fields.forEach((field, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.computeIfAbsent(key, k -> new HashMap<>()).put(field, delta);
+            }
+        }));
+        return deltas;
+    }
+
+    private void add(String key, String field, long delta) {
+        pending.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(field, f -> new LongAdder())
+                .add(delta);
+    }
+
+    private static long sum(Map<String, Long> counts, Integer status) {
+        if (counts == null) {
+            return 0L;
+        }
+        if (status != null) {
+            return counts.getOrDefault(statusField(status), 0L);
+        }
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static List<String> tables() {
+        return List.of(LogPartitionService.OPERATION_LOG_TABLE, LogPartitionService.LOGIN_LOG_TABLE);
+    }
+
+    private static String statusField(Integer status) {
+        return status != null ? status.toString() : UNKNOWN_STATUS;
+    }
+
+    private static String dayKey(String table, LocalDate day) {
+        return STATS_PREFIX + table + ":" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private static String totalKey(String table) {
+        return STATS_PREFIX + table + ":" + TOTAL;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("刷写日志统计计数失败", e);
+        }
+    }
+}
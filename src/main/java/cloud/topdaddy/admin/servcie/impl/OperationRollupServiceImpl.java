@@ -0,0 +1,279 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.config.RollupProperties;
+import cloud.topdaddy.admin.dto.LatencyStats;
+import cloud.topdaddy.admin.entity.SysOperationLog;
+import cloud.topdaddy.admin.entity.SysOperationRollup;
+import cloud.topdaddy.admin.mapper.SysOperationRollupMapper;
+import cloud.topdaddy.admin.metrics.LatencyHistogram;
+import cloud.topdaddy.admin.servcie.OperationRollupService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 操作日志小时汇总服务实现类
+ * <p>
+ * 直方图无法在SQL中合并，每个节点只读写自己的汇总行：刷写时读出已有行与内存增量合并后整体覆盖，
+ * 查询时再把各节点、各用户的行合并。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OperationRollupServiceImpl implements OperationRollupService {
+
+    private final SysOperationRollupMapper rollupMapper;
+    private final RollupProperties rollupProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int UPSERT_BATCH_SIZE = 200;
+
+    /**
+     * 汇总维度 -> 未刷写的增量
+     */
+    private final Map<RollupKey, Rollup> pending = new ConcurrentHashMap<>();
+
+    private String node;
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        node = StringUtils.hasText(rollupProperties.getNode()) ? rollupProperties.getNode() : hostName();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rollup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = rollupProperties.getFlushInterval();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public void record(SysOperationLog operationLog) {
+        if (operationLog.getMethod() == null) {
+            return;
+        }
+        LocalDateTime time = operationLog.getCreateTime() != null ? operationLog.getCreateTime() : LocalDateTime.now();
+        RollupKey key = new RollupKey(time.truncatedTo(ChronoUnit.HOURS), operationLog.getMethod(),
+                operationLog.getOperation() != null ? operationLog.getOperation() : "",
+                operationLog.getUserId() != null ? operationLog.getUserId() : 0L);
+        long cost = operationLog.getCostTime() != null ? operationLog.getCostTime() : 0L;
+        boolean failed = Integer.valueOf(0).equals(operationLog.getStatus());
+        // compute与刷写时的remove互斥，记录不会落入已被取走的汇总
+        pending.compute(key, (k, rollup) -> {
+            Rollup target = rollup != null ? rollup : new Rollup();
+            target.record(cost, failed);
+            return target;
+        });
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Rollup> deltas = new HashMap<>();
+        for (RollupKey key : new ArrayList<>(pending.keySet())) {
+            Rollup rollup = pending.remove(key);
+            if (rollup != null) {
+                deltas.put(key, rollup);
+            }
+        }
+
+        Map<LocalDateTime, List<RollupKey>> byHour = deltas.keySet().stream()
+                .collect(Collectors.groupingBy(RollupKey::hour));
+        RuntimeException failure = null;
+        for (Map.Entry<LocalDateTime, List<RollupKey>> entry : byHour.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> flushHour(entry.getKey(), entry.getValue(), deltas));
+            } catch (RuntimeException e) {
+                // 未写入的增量放回内存，下一轮重试
+                entry.getValue().forEach(key -> pending.merge(key, deltas.get(key), Rollup::merge));
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        log.debug("刷写操作日志汇总完成，维度数量: {}", deltas.size());
+    }
+
+    @Override
+    public List<LatencyStats> getLatencyStats(int hours, Long userId, String method, int limit) {
+        int window = Math.min(Math.max(hours, 1), rollupProperties.getMaxWindowHours());
+        LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(window - 1L);
+
+        Map<String, Rollup> byMethod = new HashMap<>();
+        Map<String, String> operations = new HashMap<>();
+        for (SysOperationRollup row : rollupMapper.selectSince(startTime, userId, method)) {
+            byMethod.computeIfAbsent(row.getMethod(), k -> new Rollup()).merge(Rollup.of(row));
+            if (StringUtils.hasText(row.getOperation())) {
+                operations.putIfAbsent(row.getMethod(), row.getOperation());
+            }
+        }
+
+        return byMethod.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey(), operations.get(entry.getKey())))
+                .sorted(Comparator.comparing(LatencyStats::getP99).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int cleanExpired(int retentionDays) {
+        LocalDateTime boundary = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(retentionDays);
+        int deleted = rollupMapper.deleteBefore(boundary);
+        log.info("清理{}之前的操作日志汇总，共清理{}条记录", boundary, deleted);
+        return deleted;
+    }
+
+    /**
+     * 合并同一小时的增量与已有汇总行后整体覆盖，需在事务内执行，
+     * 任一批失败时整小时回滚，放回内存的增量不会被重复累加
+     */
+    private void flushHour(LocalDateTime hour, List<RollupKey> keys, Map<RollupKey, Rollup> deltas) {
+        Map<RollupKey, SysOperationRollup> existing = new HashMap<>();
+        for (SysOperationRollup row : rollupMapper.selectByHour(hour, node)) {
+            existing.put(new RollupKey(hour, row.getMethod(), row.getOperation(), row.getUserId()), row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SysOperationRollup> rows = new ArrayList<>(keys.size());
+        for (RollupKey key : keys) {
+            Rollup merged = new Rollup().merge(deltas.get(key));
+            SysOperationRollup row = existing.get(key);
+            if (row != null) {
+                merged.merge(Rollup.of(row));
+            }
+            rows.add(merged.toRow(key, node, now));
+        }
+        for (int from = 0; from < rows.size(); from += UPSERT_BATCH_SIZE) {
+            rollupMapper.batchUpsert(rows.subList(from, Math.min(from + UPSERT_BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("刷写操作日志汇总失败", e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            log.warn("获取主机名失败，使用默认节点标识", e);
+            return "default";
+        }
+    }
+
+    /**
+     * 汇总维度
+     */
+    private record RollupKey(LocalDateTime hour, String method, String operation, long userId) {
+    }
+
+    /**
+     * 一个维度的累计值
+     */
+    private static class Rollup {
+
+        private long callCount;
+        private long errorCount;
+        private long totalCost;
+        private long maxCost;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        static Rollup of(SysOperationRollup row) {
+            Rollup rollup = new Rollup();
+            rollup.callCount = row.getCallCount() != null ? row.getCallCount() : 0L;
+            rollup.errorCount = row.getErrorCount() != null ? row.getErrorCount() : 0L;
+            rollup.totalCost = row.getTotalCost() != null ? row.getTotalCost() : 0L;
+            rollup.maxCost = row.getMaxCost() != null ? row.getMaxCost() : 0L;
+            rollup.histogram.add(LatencyHistogram.decode(row.getHistogram()));
+            rollup.histogram.setMaxValue(rollup.maxCost);
+            return rollup;
+        }
+
+        void record(long cost, boolean failed) {
+            callCount++;
+            if (failed) {
+                errorCount++;
+            }
+            totalCost += cost;
+            maxCost = Math.max(maxCost, cost);
+            histogram.record(cost);
+        }
+
+        Rollup merge(Rollup other) {
+            callCount += other.callCount;
+            errorCount += other.errorCount;
+            totalCost += other.totalCost;
+            maxCost = Math.max(maxCost, other.maxCost);
+            histogram.add(other.histogram);
+            return this;
+        }
+
+        SysOperationRollup toRow(RollupKey key, String node, LocalDateTime updateTime) {
+            SysOperationRollup row = new SysOperationRollup();
+            row.setHourTime(key.hour());
+            row.setNode(node);
+            row.setMethod(key.method());
+            row.setOperation(key.operation());
+            row.setUserId(key.userId());
+            row.setCallCount(callCount);
+            row.setErrorCount(errorCount);
+            row.setTotalCost(totalCost);
+            row.setMaxCost(maxCost);
+            row.setHistogram(histogram.encode());
+            row.setUpdateTime(updateTime);
+            return row;
+        }
+
+        LatencyStats toStats(String method, String operation) {
+            LatencyStats stats = new LatencyStats();
+            stats.setMethod(method);
+            stats.setOperation(operation);
+            stats.setCount(callCount);
+            stats.setErrorCount(errorCount);
+            stats.setAvgCost(callCount == 0 ? 0L : totalCost / callCount);
+            stats.setP50(histogram.percentile(50));
+            stats.setP95(histogram.percentile(95));
+            stats.setP99(histogram.percentile(99));
+            stats.setMaxCost(maxCost);
+            return stats;
+        }
+    }
+}
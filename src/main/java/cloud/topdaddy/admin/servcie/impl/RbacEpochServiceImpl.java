@@ -0,0 +1,181 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+import cloud.topdaddy.admin.security.RbacChangeListener;
+import cloud.topdaddy.admin.servcie.RbacEpochService;
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson2.JSON;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 权限版本服务实现类
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RbacEpochServiceImpl implements RbacEpochService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectProvider<RbacChangeListener> changeListeners;
+
+    private static final String EPOCH_KEY = "rbac:authz:epoch";
+    private static final String CHANNEL = "rbac:authz:events";
+
+    private final String nodeId = IdUtil.fastSimpleUUID();
+    private final AtomicLong localEpoch = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+                if (body != null) {
+                    handleEvent(JSON.parseObject(body.toString(), RbacChangeEvent.class));
+                }
+            } catch (Exception e) {
+                log.error("处理权限变更通知失败", e);
+            }
+        }, new ChannelTopic(CHANNEL));
+
+        localEpoch.set(readRemoteEpoch());
+    }
+
+    @Override
+    public long currentEpoch() {
+        return localEpoch.get();
+    }
+
+    @Override
+    public void publish(RbacChangeEvent.Scope scope, Collection<Long> targetIds) {
+        RbacChangeEvent event = new RbacChangeEvent();
+        event.setScope(scope);
+        event.setTargetIds(targetIds == null ? null : new ArrayList<>(targetIds));
+        event.setOrigin(nodeId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(event);
+                }
+            });
+        } else {
+            doPublish(event);
+        }
+    }
+
+    @Override
+    public void handleEvent(RbacChangeEvent event) {
+        if (nodeId.equals(event.getOrigin())) {
+            // 本节点发布的事件已在发布时处理
+            return;
+        }
+        if (event.getEpoch() != null && advance(event.getEpoch())) {
+            // 中间的通知丢失，无法得知遗漏了哪些用户和角色，整体重新构建
+            rebuildAll(event.getEpoch());
+            return;
+        }
+        dispatch(event);
+    }
+
+    @Override
+    public void reconcile() {
+        long remoteEpoch = readRemoteEpoch();
+        long current = localEpoch.get();
+        if (remoteEpoch > current && localEpoch.compareAndSet(current, remoteEpoch)) {
+            log.warn("权限版本落后，本地: {}, 远端: {}，清空本地授权缓存", current, remoteEpoch);
+            rebuildAll(remoteEpoch);
+        }
+    }
+
+    /**
+     * 推进本地版本号，跳过了中间版本时返回true
+     */
+    private boolean advance(long epoch) {
+        long previous = localEpoch.getAndAccumulate(epoch, Math::max);
+        if (epoch > previous + 1) {
+            log.warn("权限版本不连续，本地: {}, 收到: {}，重新构建本地授权缓存", previous, epoch);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 通知本地监听器整体重新构建
+     */
+    private void rebuildAll(long epoch) {
+        RbacChangeEvent event = new RbacChangeEvent();
+        event.setEpoch(epoch);
+        event.setScope(RbacChangeEvent.Scope.ALL);
+        event.setOrigin(nodeId);
+        dispatch(event);
+    }
+
+    /**
+     * 递增全局版本号，先作用于本节点再通知其他节点
+     */
+    private void doPublish(RbacChangeEvent event) {
+        try {
+            Long epoch = redisTemplate.opsForValue().increment(EPOCH_KEY);
+            event.setEpoch(epoch);
+            // 本节点的递增也可能越过一条丢失的通知
+            if (epoch != null && advance(epoch)) {
+                rebuildAll(epoch);
+            }
+        } catch (Exception e) {
+            log.error("递增权限版本号失败", e);
+        }
+
+        dispatch(event);
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL, JSON.toJSONString(event));
+            log.debug("发布权限变更成功，版本: {}, 范围: {}, 目标: {}", event.getEpoch(), event.getScope(), event.getTargetIds());
+        } catch (Exception e) {
+            log.error("发布权限变更失败，版本: {}", event.getEpoch(), e);
+        }
+    }
+
+    /**
+     * 通知本地监听器
+     */
+    private void dispatch(RbacChangeEvent event) {
+        List<RbacChangeListener> listeners = changeListeners.orderedStream().toList();
+        for (RbacChangeListener listener : listeners) {
+            try {
+                listener.onRbacChange(event);
+            } catch (Exception e) {
+                log.error("权限变更监听器执行失败: {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * 读取Redis中的权限版本号
+     */
+    private long readRemoteEpoch() {
+        try {
+            Object value = redisTemplate.opsForValue().get(EPOCH_KEY);
+            return value instanceof Number number ? number.longValue() : 0L;
+        } catch (Exception e) {
+            log.error("读取权限版本号失败", e);
+            return localEpoch.get();
+        }
+    }
+}
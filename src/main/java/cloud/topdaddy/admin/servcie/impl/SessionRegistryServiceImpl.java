@@ -0,0 +1,373 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.config.JwtProperties;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.OnlineSession;
+import cloud.topdaddy.admin.exception.BusinessException;
+import cloud.topdaddy.admin.servcie.SessionRegistryService;
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson2.JSON;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话注册服务实现类
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+public class SessionRegistryServiceImpl implements SessionRegistryService {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final JwtProperties jwtProperties;
+    private final LRUCache<String, Long> lastTouched;
+
+    // 缓存键前缀
+    private static final String SESSION_INFO_PREFIX = "rbac:session:info:";
+    private static final String USER_SESSIONS_PREFIX = "rbac:session:user:";
+    private static final String ACTIVITY_KEY = "rbac:session:activity";
+
+    private static final int PRUNE_BATCH_SIZE = 1000;
+
+    public SessionRegistryServiceImpl(RedisTemplate<String, Object> redisTemplate, JwtProperties jwtProperties) {
+        this.redisTemplate = redisTemplate;
+        this.jwtProperties = jwtProperties;
+        this.lastTouched = CacheUtil.newLRUCache(jwtProperties.getSessionTouchCacheSize());
+    }
+
+    @Override
+    public String register(Long userId, String username, String loginIp) {
+        String sessionId = IdUtil.fastSimpleUUID();
+        long now = System.currentTimeMillis();
+
+        OnlineSession session = new OnlineSession();
+        session.setSessionId(sessionId);
+        session.setUserId(userId);
+        session.setUsername(username);
+        session.setLoginIp(loginIp);
+        session.setLoginTime(now);
+        String info = JSON.toJSONString(session);
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForValue().set(SESSION_INFO_PREFIX + sessionId, info, idleTimeout(), TimeUnit.MILLISECONDS);
+                    ops.opsForZSet().add(USER_SESSIONS_PREFIX + userId, sessionId, now);
+                    ops.opsForZSet().add(ACTIVITY_KEY, member(userId, sessionId), now);
+                    return null;
+                }
+            });
+            lastTouched.put(sessionId, now);
+            log.debug("注册会话成功，用户ID: {}, 会话ID: {}", userId, sessionId);
+        } catch (Exception e) {
+            log.error("注册会话失败，用户ID: {}", userId, e);
+        }
+        return sessionId;
+    }
+
+    @Override
+    public void touch(Long userId, String sessionId) {
+        long now = System.currentTimeMillis();
+        Long last = lastTouched.get(sessionId, false);
+        if (last != null && now - last < jwtProperties.getSessionTouchInterval()) {
+            return;
+        }
+        lastTouched.put(sessionId, now);
+
+        try {
+            // 只更新已注册的会话，不会重新创建已移除的会话
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                touchExisting(connection, userId, sessionId, now);
+                connection.zSetCommands().zAdd(rawKey(ACTIVITY_KEY), now, rawValue(member(userId, sessionId)),
+                        RedisZSetCommands.ZAddArgs.ifExists());
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("记录会话活跃失败，会话ID: {}", sessionId, e);
+        }
+    }
+
+    @Override
+    public void touchAll(List<OnlineSession> activities) {
+        if (CollectionUtils.isEmpty(activities)) {
+            return;
+        }
+        // 只更新仍然存在的会话，缓冲期间已登出或被踢下线的会话不会被重新加入
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            Set<Tuple> sessions = new HashSet<>(activities.size() * 2);
+            for (OnlineSession activity : activities) {
+                long time = activity.getLastActiveTime();
+                touchExisting(connection, activity.getUserId(), activity.getSessionId(), time);
+                sessions.add(new DefaultTuple(rawValue(member(activity.getUserId(), activity.getSessionId())), (double) time));
+            }
+            connection.zSetCommands().zAdd(rawKey(ACTIVITY_KEY), sessions, RedisZSetCommands.ZAddArgs.ifExists());
+            return null;
+        });
+        activities.forEach(activity -> lastTouched.put(activity.getSessionId(), activity.getLastActiveTime()));
+    }
+
+    /**
+     * 以 ZADD XX 更新会话的活跃时间并续期会话信息，会话已移除时不做任何修改
+     */
+    private void touchExisting(RedisConnection connection, Long userId, String sessionId, long time) {
+        connection.zSetCommands().zAdd(rawKey(USER_SESSIONS_PREFIX + userId), time, rawValue(sessionId),
+                RedisZSetCommands.ZAddArgs.ifExists());
+        connection.keyCommands().pExpire(rawKey(SESSION_INFO_PREFIX + sessionId), idleTimeout());
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    @Override
+    public void remove(Long userId, String sessionId) {
+        try {
+            redisTemplate.opsForZSet().remove(USER_SESSIONS_PREFIX + userId, sessionId);
+            redisTemplate.opsForZSet().remove(ACTIVITY_KEY, member(userId, sessionId));
+            redisTemplate.delete(SESSION_INFO_PREFIX + sessionId);
+            lastTouched.remove(sessionId);
+            log.debug("移除会话成功，用户ID: {}, 会话ID: {}", userId, sessionId);
+        } catch (Exception e) {
+            log.error("移除会话失败，会话ID: {}", sessionId, e);
+        }
+    }
+
+    @Override
+    public int removeUserSessions(Long userId) {
+        try {
+            String userKey = USER_SESSIONS_PREFIX + userId;
+            Set<Object> sessionIds = redisTemplate.opsForZSet().range(userKey, 0, -1);
+            if (CollectionUtils.isEmpty(sessionIds)) {
+                return 0;
+            }
+
+            List<String> infoKeys = new ArrayList<>(sessionIds.size());
+            Object[] members = new Object[sessionIds.size()];
+            int i = 0;
+            for (Object sessionId : sessionIds) {
+                infoKeys.add(SESSION_INFO_PREFIX + sessionId);
+                members[i++] = member(userId, sessionId.toString());
+                lastTouched.remove(sessionId.toString());
+            }
+            redisTemplate.opsForZSet().remove(ACTIVITY_KEY, members);
+            redisTemplate.delete(infoKeys);
+            redisTemplate.delete(userKey);
+
+            log.info("移除用户全部会话成功，用户ID: {}, 会话数量: {}", userId, sessionIds.size());
+            return sessionIds.size();
+        } catch (Exception e) {
+            log.error("移除用户全部会话失败，用户ID: {}", userId, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public CursorPage<OnlineSession> listSessions(String cursor, int size) {
+        double maxScore = Double.POSITIVE_INFINITY;
+        String cursorMember = null;
+        if (StringUtils.hasText(cursor)) {
+            String[] parts = decodeCursor(cursor);
+            maxScore = Double.parseDouble(parts[0]);
+            cursorMember = parts[1];
+        }
+
+        // 按分值倒序做键集分页，同分成员按成员倒序排列
+        List<ZSetOperations.TypedTuple<Object>> page = new ArrayList<>(size + 1);
+        long offset = 0;
+        int fetch = size + 1;
+        while (page.size() <= size) {
+            Set<ZSetOperations.TypedTuple<Object>> batch = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(ACTIVITY_KEY, Double.NEGATIVE_INFINITY, maxScore, offset, fetch);
+            if (CollectionUtils.isEmpty(batch)) {
+                break;
+            }
+            for (ZSetOperations.TypedTuple<Object> tuple : batch) {
+                if (cursorMember != null && tuple.getScore() != null && tuple.getScore() == maxScore
+                        && String.valueOf(tuple.getValue()).compareTo(cursorMember) >= 0) {
+                    continue;
+                }
+                page.add(tuple);
+                if (page.size() > size) {
+                    break;
+                }
+            }
+            if (batch.size() < fetch) {
+                break;
+            }
+            offset += batch.size();
+        }
+
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            ZSetOperations.TypedTuple<Object> last = page.get(size - 1);
+            nextCursor = encodeCursor(last.getScore(), String.valueOf(last.getValue()));
+        }
+
+        Long total = redisTemplate.opsForZSet().zCard(ACTIVITY_KEY);
+        return CursorPage.of(loadSessions(page), nextCursor, total);
+    }
+
+    @Override
+    public List<OnlineSession> getUserSessions(Long userId) {
+        Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet()
+                .reverseRangeWithScores(USER_SESSIONS_PREFIX + userId, 0, -1);
+        if (CollectionUtils.isEmpty(tuples)) {
+            return Collections.emptyList();
+        }
+        List<ZSetOperations.TypedTuple<Object>> page = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            page.add(ZSetOperations.TypedTuple.of(member(userId, String.valueOf(tuple.getValue())), tuple.getScore()));
+        }
+        return loadSessions(page);
+    }
+
+    @Override
+    public boolean isOnline(Long userId, String sessionId) {
+        try {
+            return redisTemplate.opsForZSet().score(USER_SESSIONS_PREFIX + userId, sessionId) != null;
+        } catch (Exception e) {
+            log.error("检查会话在线状态失败，会话ID: {}", sessionId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public int pruneExpired() {
+        double threshold = System.currentTimeMillis() - idleTimeout();
+        int pruned = 0;
+        while (true) {
+            Set<Object> members = redisTemplate.opsForZSet()
+                    .rangeByScore(ACTIVITY_KEY, Double.NEGATIVE_INFINITY, threshold, 0, PRUNE_BATCH_SIZE);
+            if (CollectionUtils.isEmpty(members)) {
+                break;
+            }
+
+            Map<Long, List<Object>> userSessions = new HashMap<>();
+            List<String> infoKeys = new ArrayList<>(members.size());
+            for (Object member : members) {
+                String value = member.toString();
+                int separator = value.indexOf(':');
+                Long userId = Long.valueOf(value.substring(0, separator));
+                String sessionId = value.substring(separator + 1);
+                userSessions.computeIfAbsent(userId, id -> new ArrayList<>()).add(sessionId);
+                infoKeys.add(SESSION_INFO_PREFIX + sessionId);
+                lastTouched.remove(sessionId);
+            }
+
+            redisTemplate.opsForZSet().remove(ACTIVITY_KEY, members.toArray());
+            userSessions.forEach((userId, sessionIds) ->
+                    redisTemplate.opsForZSet().remove(USER_SESSIONS_PREFIX + userId, sessionIds.toArray()));
+            redisTemplate.delete(infoKeys);
+            pruned += members.size();
+
+            if (members.size() < PRUNE_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (pruned > 0) {
+            log.info("清理过期会话完成，数量: {}", pruned);
+        }
+        return pruned;
+    }
+
+    /**
+     * 批量读取会话详情，详情已过期时使用索引中的信息
+     */
+    private List<OnlineSession> loadSessions(List<ZSetOperations.TypedTuple<Object>> tuples) {
+        if (tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> infoKeys = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            String value = String.valueOf(tuple.getValue());
+            infoKeys.add(SESSION_INFO_PREFIX + value.substring(value.indexOf(':') + 1));
+        }
+        List<Object> infos = redisTemplate.opsForValue().multiGet(infoKeys);
+
+        List<OnlineSession> sessions = new ArrayList<>(tuples.size());
+        int i = 0;
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            Object info = infos != null ? infos.get(i) : null;
+            i++;
+            OnlineSession session;
+            if (info != null) {
+                session = JSON.parseObject(info.toString(), OnlineSession.class);
+            } else {
+                String value = String.valueOf(tuple.getValue());
+                int separator = value.indexOf(':');
+                session = new OnlineSession();
+                session.setUserId(Long.valueOf(value.substring(0, separator)));
+                session.setSessionId(value.substring(separator + 1));
+            }
+            if (tuple.getScore() != null) {
+                session.setLastActiveTime(tuple.getScore().longValue());
+            }
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private long idleTimeout() {
+        return jwtProperties.getRefreshExpiration();
+    }
+
+    private static String member(Long userId, String sessionId) {
+        return userId + ":" + sessionId;
+    }
+
+    private static String encodeCursor(Double score, String member) {
+        String raw = (score != null ? score.longValue() : 0L) + "|" + member;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0) {
+                throw BusinessException.of(ResultCode.PARAM_ERROR, "游标无效");
+            }
+            Long.parseLong(raw.substring(0, separator));
+            return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.of(ResultCode.PARAM_ERROR, "游标无效");
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package cloud.topdaddy.admin.servcie.impl;
 
+import cloud.topdaddy.admin.archive.LogArchiveStore;
+import cloud.topdaddy.admin.common.RedisLock;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.SeekCursor;
 import cloud.topdaddy.admin.entity.SysLoginLog;
 import cloud.topdaddy.admin.mapper.SysLoginLogMapper;
+import cloud.topdaddy.admin.mapper.TableStatMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
+import cloud.topdaddy.admin.servcie.LogStatsService;
 import cloud.topdaddy.admin.servcie.SysLoginLogService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -11,8 +18,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * 登录日志服务实现类
@@ -25,6 +35,17 @@ import java.time.format.DateTimeFormatter;
 public class SysLoginLogServiceImpl extends ServiceImpl<SysLoginLogMapper, SysLoginLog> implements SysLoginLogService {
 
     private final SysLoginLogMapper loginLogMapper;
+    private final LogPartitionService logPartitionService;
+    private final LogArchiveStore logArchiveStore;
+    private final TableStatMapper tableStatMapper;
+    private final LogStatsService logStatsService;
+    private final RedisLock redisLock;
+
+    /**
+     * 清理锁，多个节点同时清理时只有一个节点执行归档和删除
+     */
+    private static final String CLEAN_LOCK_KEY = "rbac:log:clean:login";
+    private static final Duration CLEAN_LOCK_TTL = Duration.ofHours(6);
 
     @Override
     public IPage<SysLoginLog> pageLoginLogs(Integer pageNum, Integer pageSize, String username, Integer status, String startTime, String endTime) {
@@ -35,40 +56,121 @@ public class SysLoginLogServiceImpl extends ServiceImpl<SysLoginLogMapper, SysLo
                 .eq(status != null, SysLoginLog::getStatus, status);
 
         // 时间范围查询
+        LocalDateTime start = null;
+        LocalDateTime end = null;
         if (StringUtils.hasText(startTime)) {
-            LocalDateTime start = LocalDateTime.parse(startTime + " 00:00:00",
+            start = LocalDateTime.parse(startTime + " 00:00:00",
                     DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            wrapper.ge(SysLoginLog::getLoginTime, start);
         }
 
         if (StringUtils.hasText(endTime)) {
-            LocalDateTime end = LocalDateTime.parse(endTime + " 23:59:59",
+            end = LocalDateTime.parse(endTime + " 23:59:59",
                     DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
             wrapper.le(SysLoginLog::getLoginTime, end);
         }
 
+        // 已归档的数据从归档读取，数据库只查归档水位之后的部分，其余由查询范围裁剪分区
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.LOGIN_LOG_TABLE);
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+        wrapper.ge(dbStart != null, SysLoginLog::getLoginTime, dbStart);
         wrapper.orderByDesc(SysLoginLog::getLoginTime);
 
-        return this.page(page, wrapper);
+        IPage<SysLoginLog> result = this.page(page, wrapper);
+        if (start == null || archivedUntil == null || !start.isBefore(archivedUntil)) {
+            return result;
+        }
+
+        // 开始时间早于归档水位时续接归档数据
+        LocalDateTime archiveEnd = end != null && end.isBefore(archivedUntil) ? end.plusSeconds(1) : archivedUntil;
+        return logArchiveStore.queryThrough(result, LogPartitionService.LOGIN_LOG_TABLE, SysLoginLog.class,
+                SysLoginLog::getLoginTime, start, archiveEnd,
+                row -> (!StringUtils.hasText(username) || (row.getUsername() != null && row.getUsername().contains(username)))
+                        && (status == null || status.equals(row.getStatus())));
+    }
+
+    @Override
+    public CursorPage<SysLoginLog> listLoginLogs(String cursor, Integer size, String username, Integer status,
+                                                 String startTime, String endTime, boolean withTotal) {
+        SeekCursor seek = SeekCursor.decode(cursor);
+
+        LambdaQueryWrapper<SysLoginLog> wrapper = new LambdaQueryWrapper<>();
+        wrapper.like(StringUtils.hasText(username), SysLoginLog::getUsername, username)
+                .eq(status != null, SysLoginLog::getStatus, status);
+
+        // 已归档的数据不在游标列表中返回，数据库只查归档水位之后的部分
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.LOGIN_LOG_TABLE);
+        LocalDateTime start = StringUtils.hasText(startTime)
+                ? LocalDateTime.parse(startTime + " 00:00:00", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+                : null;
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+        wrapper.ge(dbStart != null, SysLoginLog::getLoginTime, dbStart);
+        if (StringUtils.hasText(endTime)) {
+            LocalDateTime end = LocalDateTime.parse(endTime + " 23:59:59",
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            wrapper.le(SysLoginLog::getLoginTime, end);
+        }
+
+        // 从上一页最后一条之后继续，走 (login_time, id) 索引
+        if (seek != null) {
+            wrapper.and(w -> w.lt(SysLoginLog::getLoginTime, seek.time())
+                    .or(o -> o.eq(SysLoginLog::getLoginTime, seek.time()).lt(SysLoginLog::getId, seek.id())));
+        }
+        wrapper.orderByDesc(SysLoginLog::getLoginTime).orderByDesc(SysLoginLog::getId).last("LIMIT " + (size + 1));
+
+        List<SysLoginLog> logs = this.list(wrapper);
+        String nextCursor = null;
+        if (logs.size() > size) {
+            logs = logs.subList(0, size);
+            SysLoginLog last = logs.get(logs.size() - 1);
+            nextCursor = new SeekCursor(last.getLoginTime(), last.getId()).encode();
+        }
+        // 估算值是全表行数，带筛选条件时不返回
+        boolean filtered = StringUtils.hasText(username) || status != null
+                || StringUtils.hasText(startTime) || StringUtils.hasText(endTime);
+        Long total = withTotal && !filtered ? tableStatMapper.estimateRows(LogPartitionService.LOGIN_LOG_TABLE) : null;
+        return CursorPage.of(logs, nextCursor, total);
     }
 
     @Override
     public void cleanLogs(Integer days) {
+        String token = null;
         try {
+            token = redisLock.tryLock(CLEAN_LOCK_KEY, CLEAN_LOCK_TTL);
+            if (token == null) {
+                log.info("其他节点正在清理登录日志，跳过本次清理");
+                return;
+            }
+            if (logPartitionService.isPartitioned(LogPartitionService.LOGIN_LOG_TABLE)) {
+                int dropped = logPartitionService.dropExpiredPartitions(LogPartitionService.LOGIN_LOG_TABLE, days);
+                log.info("清理{}天前的登录日志，共删除{}个分区", days, dropped);
+                return;
+            }
+            if (logArchiveStore.isEnabled()) {
+                // 按月对齐的边界归档后删除，与查询的热数据范围一致
+                LocalDateTime boundary = logPartitionService.retentionStart(days);
+                logArchiveStore.archive(LogPartitionService.LOGIN_LOG_TABLE, null, boundary);
+                boolean removed = this.remove(new LambdaQueryWrapper<SysLoginLog>().lt(SysLoginLog::getLoginTime, boundary));
+                log.info("归档并清理{}之前的登录日志，是否有删除: {}", boundary, removed);
+                return;
+            }
             int count = loginLogMapper.deleteByDaysAgo(days);
             log.info("清理{}天前的登录日志，共清理{}条记录", days, count);
         } catch (Exception e) {
             log.error("清理登录日志失败", e);
+        } finally {
+            if (token != null) {
+                redisLock.unlock(CLEAN_LOCK_KEY, token);
+            }
         }
     }
 
     @Override
     public Long countTodayLogins() {
-        return loginLogMapper.countTodayLogs();
+        return logStatsService.count(LogPartitionService.LOGIN_LOG_TABLE, LocalDate.now(), null);
     }
 
     @Override
     public Long countFailedLogins() {
-        return loginLogMapper.countFailedLogs();
+        return logStatsService.count(LogPartitionService.LOGIN_LOG_TABLE, null, 0);
     }
 }
\ No newline at end of file
@@ -1,19 +1,38 @@
 package cloud.topdaddy.admin.servcie.impl;
 
+import cloud.topdaddy.admin.archive.LogArchiveStore;
+import cloud.topdaddy.admin.audit.AuditLogWriter;
+import cloud.topdaddy.admin.common.RedisLock;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.SeekCursor;
 import cloud.topdaddy.admin.entity.SysOperationLog;
 import cloud.topdaddy.admin.mapper.SysOperationLogMapper;
+import cloud.topdaddy.admin.mapper.TableStatMapper;
+import cloud.topdaddy.admin.servcie.LogPartitionService;
 import cloud.topdaddy.admin.servcie.SysOperationLogService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 操作日志服务实现类
@@ -26,6 +45,50 @@ import java.time.format.DateTimeFormatter;
 public class SysOperationLogServiceImpl extends ServiceImpl<SysOperationLogMapper, SysOperationLog> implements SysOperationLogService {
 
     private final SysOperationLogMapper operationLogMapper;
+    private final AuditLogWriter auditLogWriter;
+    private final LogPartitionService logPartitionService;
+    private final LogArchiveStore logArchiveStore;
+    private final TableStatMapper tableStatMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLock redisLock;
+
+    /**
+     * 清理锁，多个节点同时清理时只有一个节点执行归档和删除
+     */
+    private static final String CLEAN_LOCK_KEY = "rbac:log:clean:operation";
+    private static final Duration CLEAN_LOCK_TTL = Duration.ofHours(6);
+
+    /**
+     * 历史载荷压缩进度，记录最后一个已提交批次的最大ID
+     */
+    private static final String COMPRESS_POSITION_KEY = "rbac:log:compress:position";
+    private static final String COMPRESS_LOCK_KEY = "rbac:log:compress:lock";
+    private static final Duration COMPRESS_LOCK_TTL = Duration.ofMinutes(5);
+
+    private final AtomicBoolean compressing = new AtomicBoolean(false);
+    private final AtomicLong compressedCount = new AtomicLong();
+    private ExecutorService compressor;
+
+    @PostConstruct
+    public void start() {
+        compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        // 中断后从已保存的位置继续
+        compressor.shutdownNow();
+        try {
+            compressor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
     @Override
     public IPage<SysOperationLog> pageOperationLogs(Integer pageNum, Integer pageSize, 
@@ -34,33 +97,90 @@ public class SysOperationLogServiceImpl extends ServiceImpl<SysOperationLogMappe
         Page<SysOperationLog> page = new Page<>(pageNum, pageSize);
         
         LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(module), SysOperationLog::getModule, module)
-               .like(StringUtils.hasText(type), SysOperationLog::getType, type)
+        // 表中没有模块和类型列，分别按请求方法和操作名称匹配
+        wrapper.like(StringUtils.hasText(module), SysOperationLog::getMethod, module)
+               .like(StringUtils.hasText(type), SysOperationLog::getOperation, type)
                .like(StringUtils.hasText(username), SysOperationLog::getUsername, username);
         
         // 时间范围查询
+        LocalDateTime start = null;
+        LocalDateTime end = null;
         if (StringUtils.hasText(startTime)) {
-            LocalDateTime start = LocalDateTime.parse(startTime + " 00:00:00", 
+            start = LocalDateTime.parse(startTime + " 00:00:00", 
                 DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            wrapper.ge(SysOperationLog::getCreateTime, start);
         }
         
         if (StringUtils.hasText(endTime)) {
-            LocalDateTime end = LocalDateTime.parse(endTime + " 23:59:59", 
+            end = LocalDateTime.parse(endTime + " 23:59:59", 
                 DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
             wrapper.le(SysOperationLog::getCreateTime, end);
         }
         
+        // 已归档的数据从归档读取，数据库只查归档水位之后的部分，其余由查询范围裁剪分区
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.OPERATION_LOG_TABLE);
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+        wrapper.ge(dbStart != null, SysOperationLog::getCreateTime, dbStart);
         wrapper.orderByDesc(SysOperationLog::getCreateTime);
         
-        return this.page(page, wrapper);
+        IPage<SysOperationLog> result = this.page(page, wrapper);
+        if (start == null || archivedUntil == null || !start.isBefore(archivedUntil)) {
+            return result;
+        }
+        
+        // 开始时间早于归档水位时续接归档数据
+        LocalDateTime archiveEnd = end != null && end.isBefore(archivedUntil) ? end.plusSeconds(1) : archivedUntil;
+        return logArchiveStore.queryThrough(result, LogPartitionService.OPERATION_LOG_TABLE, SysOperationLog.class,
+                SysOperationLog::getCreateTime, start, archiveEnd,
+                row -> contains(row.getMethod(), module) && contains(row.getOperation(), type)
+                        && contains(row.getUsername(), username));
+    }
+
+    @Override
+    public CursorPage<SysOperationLog> listOperationLogs(String cursor, Integer size, String username,
+                                                         String startTime, String endTime, boolean withTotal) {
+        SeekCursor seek = SeekCursor.decode(cursor);
+        
+        LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<>();
+        wrapper.like(StringUtils.hasText(username), SysOperationLog::getUsername, username);
+        
+        // 已归档的数据不在游标列表中返回，数据库只查归档水位之后的部分
+        LocalDateTime archivedUntil = logArchiveStore.archivedUntil(LogPartitionService.OPERATION_LOG_TABLE);
+        LocalDateTime start = StringUtils.hasText(startTime)
+                ? LocalDateTime.parse(startTime + " 00:00:00", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+                : null;
+        LocalDateTime dbStart = archivedUntil != null && (start == null || start.isBefore(archivedUntil)) ? archivedUntil : start;
+        wrapper.ge(dbStart != null, SysOperationLog::getCreateTime, dbStart);
+        if (StringUtils.hasText(endTime)) {
+            LocalDateTime end = LocalDateTime.parse(endTime + " 23:59:59", 
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            wrapper.le(SysOperationLog::getCreateTime, end);
+        }
+        
+        // 从上一页最后一条之后继续，走 (create_time, id) 索引
+        if (seek != null) {
+            wrapper.and(w -> w.lt(SysOperationLog::getCreateTime, seek.time())
+                    .or(o -> o.eq(SysOperationLog::getCreateTime, seek.time()).lt(SysOperationLog::getId, seek.id())));
+        }
+        wrapper.orderByDesc(SysOperationLog::getCreateTime).orderByDesc(SysOperationLog::getId)
+               .last("LIMIT " + (size + 1));
+        
+        List<SysOperationLog> logs = this.list(wrapper);
+        String nextCursor = null;
+        if (logs.size() > size) {
+            logs = logs.subList(0, size);
+            SysOperationLog last = logs.get(logs.size() - 1);
+            nextCursor = new SeekCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        // 估算值是全表行数，带筛选条件时不返回
+        boolean filtered = StringUtils.hasText(username) || StringUtils.hasText(startTime) || StringUtils.hasText(endTime);
+        Long total = withTotal && !filtered ? tableStatMapper.estimateRows(LogPartitionService.OPERATION_LOG_TABLE) : null;
+        return CursorPage.of(logs, nextCursor, total);
     }
 
     @Override
-    @Async
     public void saveOperationLog(SysOperationLog operationLog) {
         try {
-            this.save(operationLog);
+            auditLogWriter.submit(operationLog);
         } catch (Exception e) {
             log.error("保存操作日志失败", e);
         }
@@ -72,7 +192,32 @@ public class SysOperationLogServiceImpl extends ServiceImpl<SysOperationLogMappe
             days = 30; // 默认清理30天前的日志
         }
         
+        String token = redisLock.tryLock(CLEAN_LOCK_KEY, CLEAN_LOCK_TTL);
+        if (token == null) {
+            log.info("其他节点正在清理操作日志，跳过本次清理");
+            return;
+        }
+        try {
+            cleanExpiredLogsLocked(days);
+        } finally {
+            redisLock.unlock(CLEAN_LOCK_KEY, token);
+        }
+    }
+
+    private void cleanExpiredLogsLocked(int days) {
+        // 已分区时按分区整体删除，避免大事务
+        if (logPartitionService.isPartitioned(LogPartitionService.OPERATION_LOG_TABLE)) {
+            int dropped = logPartitionService.dropExpiredPartitions(LogPartitionService.OPERATION_LOG_TABLE, days);
+            log.info("清理过期操作日志完成，删除分区数量: {}", dropped);
+            return;
+        }
+        
         LocalDateTime expireTime = LocalDateTime.now().minusDays(days);
+        if (logArchiveStore.isEnabled()) {
+            // 按月对齐的边界归档后删除，与查询的热数据范围一致
+            expireTime = logPartitionService.retentionStart(days);
+            logArchiveStore.archive(LogPartitionService.OPERATION_LOG_TABLE, null, expireTime);
+        }
         
         LambdaQueryWrapper<SysOperationLog> wrapper = new LambdaQueryWrapper<>();
         wrapper.lt(SysOperationLog::getCreateTime, expireTime);
@@ -83,4 +228,69 @@ public class SysOperationLogServiceImpl extends ServiceImpl<SysOperationLogMappe
             log.info("清理过期操作日志完成，清理数量: {}", count);
         }
     }
+
+    @Override
+    public Map<String, Object> compressLegacyLogs(Integer batchSize) {
+        int size = batchSize == null || batchSize <= 0 ? 500 : Math.min(batchSize, 5000);
+        if (compressing.compareAndSet(false, true)) {
+            String token = redisLock.tryLock(COMPRESS_LOCK_KEY, COMPRESS_LOCK_TTL);
+            if (token != null) {
+                compressedCount.set(0);
+                compressor.execute(() -> runCompression(size, token));
+            } else {
+                // 其他实例正在执行
+                compressing.set(false);
+            }
+        }
+        return getCompressProgress();
+    }
+
+    @Override
+    public Map<String, Object> getCompressProgress() {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("running", compressing.get() || redisLock.isLocked(COMPRESS_LOCK_KEY));
+        progress.put("position", loadCompressPosition());
+        progress.put("processed", compressedCount.get());
+        return progress;
+    }
+
+    private void runCompression(int batchSize, String token) {
+        try {
+            long afterId = loadCompressPosition();
+            while (!Thread.currentThread().isInterrupted()) {
+                // 锁已过期并被其他节点取得时停止，由对方从已保存的位置继续
+                if (!redisLock.renew(COMPRESS_LOCK_KEY, token, COMPRESS_LOCK_TTL)) {
+                    log.warn("压缩历史操作日志的锁已失效，停止位置: {}", afterId);
+                    return;
+                }
+                List<SysOperationLog> legacyLogs = operationLogMapper.selectLegacyPayloads(afterId, batchSize);
+                if (legacyLogs.isEmpty()) {
+                    // 全部完成，清除进度以便以后重新全表检查
+                    stringRedisTemplate.delete(COMPRESS_POSITION_KEY);
+                    log.info("压缩历史操作日志完成，本次处理数量: {}", compressedCount.get());
+                    return;
+                }
+                // 读取时按原文解码，写回时重新编码，每批一个事务
+                transactionTemplate.executeWithoutResult(status -> legacyLogs.forEach(operationLogMapper::updatePayload));
+                afterId = legacyLogs.get(legacyLogs.size() - 1).getId();
+                stringRedisTemplate.opsForValue().set(COMPRESS_POSITION_KEY, String.valueOf(afterId));
+                compressedCount.addAndGet(legacyLogs.size());
+            }
+            log.info("压缩历史操作日志已中断，停止位置: {}", afterId);
+        } catch (Exception e) {
+            log.error("压缩历史操作日志失败，可再次调用从上次位置继续", e);
+        } finally {
+            redisLock.unlock(COMPRESS_LOCK_KEY, token);
+            compressing.set(false);
+        }
+    }
+
+    private long loadCompressPosition() {
+        String position = stringRedisTemplate.opsForValue().get(COMPRESS_POSITION_KEY);
+        return position == null ? 0L : Long.parseLong(position);
+    }
+
+    private static boolean contains(String value, String keyword) {
+        return !StringUtils.hasText(keyword) || (value != null && value.contains(keyword));
+    }
 }
\ No newline at end of file
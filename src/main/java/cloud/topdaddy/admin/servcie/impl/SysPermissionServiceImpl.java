@@ -1,11 +1,14 @@
 package cloud.topdaddy.admin.servcie.impl;
 
 import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
 import cloud.topdaddy.admin.entity.SysPermission;
 import cloud.topdaddy.admin.exception.BusinessException;
 import cloud.topdaddy.admin.mapper.SysPermissionMapper;
 import cloud.topdaddy.admin.mapper.SysRolePermissionMapper;
+import cloud.topdaddy.admin.servcie.RbacEpochService;
 import cloud.topdaddy.admin.servcie.SysPermissionService;
+import cloud.topdaddy.admin.utils.BatchUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
@@ -14,8 +17,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +36,7 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
 
     private final SysPermissionMapper permissionMapper;
     private final SysRolePermissionMapper rolePermissionMapper;
+    private final RbacEpochService rbacEpochService;
 
     @Override
     public List<SysPermission> getPermissionTree() {
@@ -97,6 +104,7 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         boolean result = this.updateById(permission);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.PERMISSION, List.of(permission.getId()));
             log.info("更新权限成功，权限ID: {}", permission.getId());
         }
         
@@ -128,6 +136,7 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         boolean result = this.removeById(permissionId);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.PERMISSION, List.of(permissionId));
             log.info("删除权限成功，权限ID: {}, 权限编码: {}", permissionId, permission.getCode());
         }
         
@@ -141,27 +150,43 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
             return true;
         }
 
-        // 检查权限是否被使用或存在子权限
-        for (Long permissionId : permissionIds) {
-            if (hasChildren(permissionId)) {
-                SysPermission permission = this.getById(permissionId);
-                throw BusinessException.of("权限 [" + (permission != null ? permission.getName() : permissionId) + "] 存在子权限，无法删除");
-            }
-            
-            if (isPermissionInUse(permissionId)) {
-                SysPermission permission = this.getById(permissionId);
-                throw BusinessException.of("权限 [" + (permission != null ? permission.getName() : permissionId) + "] 正在使用中，无法删除");
+        List<Long> ids = BatchUtil.distinctIds(permissionIds);
+        List<List<Long>> chunks = BatchUtil.partition(ids);
+
+        // 检查是否存在不在本次删除范围内的子权限，整棵子树一起删除时允许
+        Set<Long> idSet = new HashSet<>(ids);
+        Set<Long> withChildren = new LinkedHashSet<>();
+        for (List<Long> chunk : chunks) {
+            for (SysPermission child : permissionMapper.selectChildrenByParentIds(chunk)) {
+                if (!idSet.contains(child.getId())) {
+                    withChildren.add(child.getParentId());
+                }
             }
         }
+        if (!withChildren.isEmpty()) {
+            throw BusinessException.of("权限 " + describePermissions(new ArrayList<>(withChildren)) + " 存在子权限，无法删除");
+        }
 
-        // 删除权限角色关联
-        permissionIds.forEach(permissionId -> rolePermissionMapper.deleteByPermissionId(permissionId));
-        
-        // 批量删除权限
-        boolean result = this.removeByIds(permissionIds);
+        // 检查权限是否被使用
+        List<Long> inUse = new ArrayList<>();
+        for (List<Long> chunk : chunks) {
+            inUse.addAll(permissionMapper.selectPermissionIdsInUse(chunk));
+        }
+        if (!inUse.isEmpty()) {
+            throw BusinessException.of(ResultCode.PERMISSION_IN_USE.getCode(),
+                "权限 " + describePermissions(inUse) + " 正在使用中，无法删除");
+        }
+
+        // 按批删除权限角色关联和权限
+        boolean result = false;
+        for (List<Long> chunk : chunks) {
+            rolePermissionMapper.deleteByPermissionIds(chunk);
+            result |= this.removeByIds(chunk);
+        }
         
         if (result) {
-            log.info("批量删除权限成功，权限ID列表: {}", permissionIds);
+            rbacEpochService.publish(RbacChangeEvent.Scope.PERMISSION, ids);
+            log.info("批量删除权限成功，权限数量: {}", ids.size());
         }
         
         return result;
@@ -178,6 +203,7 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         boolean result = this.updateById(permission);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.PERMISSION, List.of(permissionId));
             log.info("更新权限状态成功，权限ID: {}, 状态: {}", permissionId, status);
         }
         
@@ -215,6 +241,16 @@ public class SysPermissionServiceImpl extends ServiceImpl<SysPermissionMapper, S
         return permissionMapper.countRolesByPermissionId(permissionId) > 0;
     }
 
+    /**
+     * 拼接权限名称用于提示，最多列出10个
+     */
+    private String describePermissions(List<Long> permissionIds) {
+        List<Long> shown = permissionIds.subList(0, Math.min(permissionIds.size(), 10));
+        List<String> names = this.listByIds(shown).stream().map(SysPermission::getName).collect(Collectors.toList());
+        String suffix = permissionIds.size() > shown.size() ? " 等" + permissionIds.size() + "个权限" : "";
+        return names + suffix;
+    }
+
     @Override
     public boolean hasChildren(Long parentId) {
         LambdaQueryWrapper<SysPermission> wrapper = new LambdaQueryWrapper<>();
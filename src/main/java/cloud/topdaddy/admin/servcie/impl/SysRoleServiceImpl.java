@@ -1,13 +1,17 @@
 package cloud.topdaddy.admin.servcie.impl;
 
 import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.dto.AssignmentDiff;
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
 import cloud.topdaddy.admin.entity.SysRole;
 import cloud.topdaddy.admin.entity.SysRolePermission;
 import cloud.topdaddy.admin.exception.BusinessException;
 import cloud.topdaddy.admin.mapper.SysRoleMapper;
 import cloud.topdaddy.admin.mapper.SysRolePermissionMapper;
 import cloud.topdaddy.admin.mapper.SysUserRoleMapper;
+import cloud.topdaddy.admin.servcie.RbacEpochService;
 import cloud.topdaddy.admin.servcie.SysRoleService;
+import cloud.topdaddy.admin.utils.BatchUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -18,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,6 +39,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     private final SysRoleMapper roleMapper;
     private final SysRolePermissionMapper rolePermissionMapper;
     private final SysUserRoleMapper userRoleMapper;
+    private final RbacEpochService rbacEpochService;
 
     @Override
     public IPage<SysRole> pageRoles(Integer pageNum, Integer pageSize, String name, String code, Integer status) {
@@ -132,6 +138,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         boolean result = this.removeById(roleId);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.ROLE, List.of(roleId));
             log.info("删除角色成功，角色ID: {}, 角色编码: {}", roleId, role.getCode());
         }
         
@@ -145,23 +152,29 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             return true;
         }
 
-        // 检查角色是否被使用
-        for (Long roleId : roleIds) {
-            if (isRoleInUse(roleId)) {
-                SysRole role = this.getById(roleId);
-                throw BusinessException.of(ResultCode.ROLE_IN_USE.getCode(), 
-                    "角色 [" + (role != null ? role.getName() : roleId) + "] 正在使用中，无法删除");
-            }
+        List<Long> ids = BatchUtil.distinctIds(roleIds);
+        List<List<Long>> chunks = BatchUtil.partition(ids);
+
+        // 检查角色是否被使用，每批一条分组查询
+        List<Long> inUse = new ArrayList<>();
+        for (List<Long> chunk : chunks) {
+            inUse.addAll(roleMapper.selectRoleIdsInUse(chunk));
+        }
+        if (!inUse.isEmpty()) {
+            throw BusinessException.of(ResultCode.ROLE_IN_USE.getCode(),
+                "角色 " + describeRoles(inUse) + " 正在使用中，无法删除");
         }
 
-        // 删除角色权限关联
-        roleIds.forEach(roleId -> rolePermissionMapper.deleteByRoleId(roleId));
-        
-        // 批量删除角色
-        boolean result = this.removeByIds(roleIds);
+        // 按批删除角色权限关联和角色
+        boolean result = false;
+        for (List<Long> chunk : chunks) {
+            rolePermissionMapper.deleteByRoleIds(chunk);
+            result |= this.removeByIds(chunk);
+        }
         
         if (result) {
-            log.info("批量删除角色成功，角色ID列表: {}", roleIds);
+            rbacEpochService.publish(RbacChangeEvent.Scope.ROLE, ids);
+            log.info("批量删除角色成功，角色数量: {}", ids.size());
         }
         
         return result;
@@ -178,6 +191,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         boolean result = this.updateById(role);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.ROLE, List.of(roleId));
             log.info("更新角色状态成功，角色ID: {}, 状态: {}", roleId, status);
         }
         
@@ -186,13 +200,24 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public boolean assignPermissions(Long roleId, List<Long> permissionIds) {
-        // 删除原有权限关联
-        rolePermissionMapper.deleteByRoleId(roleId);
+    public AssignmentDiff assignPermissions(Long roleId, List<Long> permissionIds) {
+        // 先锁定角色行，同一角色的并发分配按顺序读取当前权限并写入差异
+        if (roleMapper.lockById(roleId) == null) {
+            throw BusinessException.of(ResultCode.ROLE_NOT_FOUND);
+        }
+        AssignmentDiff diff = AssignmentDiff.of(rolePermissionMapper.selectPermissionIdsByRoleId(roleId), permissionIds);
+        if (!diff.isChanged()) {
+            return diff;
+        }
+
+        // 只删除移除的权限关联
+        for (List<Long> chunk : BatchUtil.partition(diff.getRemoved())) {
+            rolePermissionMapper.deleteByRoleIdAndPermissionIds(roleId, chunk);
+        }
         
-        // 添加新的权限关联
-        if (!CollectionUtils.isEmpty(permissionIds)) {
-            List<SysRolePermission> rolePermissions = permissionIds.stream()
+        // 只插入新增的权限关联
+        for (List<Long> chunk : BatchUtil.partition(diff.getAdded())) {
+            List<SysRolePermission> rolePermissions = chunk.stream()
                     .map(permissionId -> {
                         SysRolePermission rolePermission = new SysRolePermission();
                         rolePermission.setRoleId(roleId);
@@ -203,9 +228,10 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             
             rolePermissionMapper.batchInsert(rolePermissions);
         }
-        
-        log.info("分配角色权限成功，角色ID: {}, 权限ID列表: {}", roleId, permissionIds);
-        return true;
+
+        rbacEpochService.publish(RbacChangeEvent.Scope.ROLE, List.of(roleId));
+        log.info("分配角色权限成功，角色ID: {}, 新增: {}, 移除: {}", roleId, diff.getAdded(), diff.getRemoved());
+        return diff;
     }
 
     @Override
@@ -228,6 +254,16 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         return roleMapper.countUsersByRoleId(roleId) > 0;
     }
 
+    /**
+     * 拼接角色名称用于提示，最多列出10个
+     */
+    private String describeRoles(List<Long> roleIds) {
+        List<Long> shown = roleIds.subList(0, Math.min(roleIds.size(), 10));
+        List<String> names = this.listByIds(shown).stream().map(SysRole::getName).collect(Collectors.toList());
+        String suffix = roleIds.size() > shown.size() ? " 等" + roleIds.size() + "个角色" : "";
+        return names + suffix;
+    }
+
     @Override
     public List<SysRole> getAllEnabledRoles() {
         LambdaQueryWrapper<SysRole> wrapper = new LambdaQueryWrapper<>();
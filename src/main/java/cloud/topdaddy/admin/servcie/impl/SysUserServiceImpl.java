@@ -1,15 +1,25 @@
 package cloud.topdaddy.admin.servcie.impl;
 
 import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.dto.AssignmentDiff;
+import cloud.topdaddy.admin.dto.CursorPage;
+import cloud.topdaddy.admin.dto.RbacChangeEvent;
+import cloud.topdaddy.admin.dto.SeekCursor;
 import cloud.topdaddy.admin.dto.UserCreateRequest;
 import cloud.topdaddy.admin.dto.UserQueryRequest;
+import cloud.topdaddy.admin.dto.UserRoleInfo;
 import cloud.topdaddy.admin.dto.UserUpdateRequest;
+import cloud.topdaddy.admin.entity.SysRole;
 import cloud.topdaddy.admin.entity.SysUser;
 import cloud.topdaddy.admin.entity.SysUserRole;
 import cloud.topdaddy.admin.exception.BusinessException;
+import cloud.topdaddy.admin.mapper.SysRoleMapper;
 import cloud.topdaddy.admin.mapper.SysUserMapper;
 import cloud.topdaddy.admin.mapper.SysUserRoleMapper;
+import cloud.topdaddy.admin.mapper.TableStatMapper;
+import cloud.topdaddy.admin.servcie.RbacEpochService;
 import cloud.topdaddy.admin.servcie.SysUserService;
+import cloud.topdaddy.admin.utils.BatchUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -24,7 +34,13 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,6 +55,9 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
     private final SysUserMapper userMapper;
     private final SysUserRoleMapper userRoleMapper;
+    private final SysRoleMapper roleMapper;
+    private final TableStatMapper tableStatMapper;
+    private final RbacEpochService rbacEpochService;
     @Lazy
     private final PasswordEncoder passwordEncoder;
 
@@ -46,15 +65,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     public IPage<SysUser> pageUsers(UserQueryRequest request) {
         Page<SysUser> page = new Page<>(request.getPageNum(), request.getPageSize());
         
-        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(StringUtils.hasText(request.getUsername()), SysUser::getUsername, request.getUsername())
-               .like(StringUtils.hasText(request.getNickname()), SysUser::getNickname, request.getNickname())
-               .like(StringUtils.hasText(request.getEmail()), SysUser::getEmail, request.getEmail())
-               .like(StringUtils.hasText(request.getPhone()), SysUser::getPhone, request.getPhone())
-               .eq(request.getGender() != null, SysUser::getGender, request.getGender())
-               .eq(request.getStatus() != null, SysUser::getStatus, request.getStatus())
-               .ge(request.getCreateTimeStart() != null, SysUser::getCreateTime, request.getCreateTimeStart())
-               .le(request.getCreateTimeEnd() != null, SysUser::getCreateTime, request.getCreateTimeEnd());
+        LambdaQueryWrapper<SysUser> wrapper = buildQueryWrapper(request);
 
         // 排序
         if (StringUtils.hasText(request.getOrderBy())) {
@@ -71,13 +82,40 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         IPage<SysUser> result = this.page(page, wrapper);
         
         // 填充角色信息
-        result.getRecords().forEach(user -> {
-            user.setRoleIds(getUserRoleIds(user.getId()));
-        });
+        hydrateRoles(result.getRecords(), Boolean.TRUE.equals(request.getWithRoles()));
         
         return result;
     }
 
+    @Override
+    public CursorPage<SysUser> listUsers(UserQueryRequest request, String cursor, boolean withTotal) {
+        int size = request.getPageSize();
+        SeekCursor seek = SeekCursor.decode(cursor);
+
+        LambdaQueryWrapper<SysUser> wrapper = buildQueryWrapper(request);
+        if (seek != null) {
+            wrapper.and(w -> w.lt(SysUser::getCreateTime, seek.time())
+                    .or(o -> o.eq(SysUser::getCreateTime, seek.time()).lt(SysUser::getId, seek.id())));
+        }
+        // 多取一条判断是否还有下一页
+        wrapper.orderByDesc(SysUser::getCreateTime).orderByDesc(SysUser::getId).last("LIMIT " + (size + 1));
+
+        List<SysUser> users = this.list(wrapper);
+        boolean hasMore = users.size() > size;
+        if (hasMore) {
+            users = users.subList(0, size);
+        }
+        hydrateRoles(users, Boolean.TRUE.equals(request.getWithRoles()));
+
+        String nextCursor = null;
+        if (hasMore) {
+            SysUser last = users.get(users.size() - 1);
+            nextCursor = new SeekCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        Long total = withTotal && !hasFilter(request) ? tableStatMapper.estimateRows("sys_user") : null;
+        return CursorPage.of(users, nextCursor, total);
+    }
+
     @Override
     public SysUser getByUsername(String username) {
         return userMapper.selectByUsername(username);
@@ -165,6 +203,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         }
 
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, List.of(request.getId()));
             log.info("更新用户成功，用户ID: {}", request.getId());
         }
         
@@ -186,6 +225,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         boolean result = this.removeById(userId);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, List.of(userId));
             log.info("删除用户成功，用户ID: {}, 用户名: {}", userId, user.getUsername());
         }
         
@@ -199,14 +239,17 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             return true;
         }
 
-        // 删除用户角色关联
-        userIds.forEach(userRoleMapper::deleteByUserId);
-        
-        // 批量删除用户
-        boolean result = this.removeByIds(userIds);
+        // 按批删除用户角色关联和用户，每批一条 IN (...) 语句
+        List<Long> ids = BatchUtil.distinctIds(userIds);
+        boolean result = false;
+        for (List<Long> chunk : BatchUtil.partition(ids)) {
+            userRoleMapper.deleteByUserIds(chunk);
+            result |= this.removeByIds(chunk);
+        }
         
         if (result) {
-            log.info("批量删除用户成功，用户ID列表: {}", userIds);
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, ids);
+            log.info("批量删除用户成功，用户数量: {}", ids.size());
         }
         
         return result;
@@ -223,6 +266,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         boolean result = this.updateById(user);
         
         if (result) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, List.of(userId));
             log.info("更新用户状态成功，用户ID: {}, 状态: {}", userId, status);
         }
         
@@ -270,13 +314,24 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public boolean assignRoles(Long userId, List<Long> roleIds) {
-        // 删除原有角色关联
-        userRoleMapper.deleteByUserId(userId);
+    public AssignmentDiff assignRoles(Long userId, List<Long> roleIds) {
+        // 先锁定用户行，同一用户的并发分配按顺序读取当前角色并写入差异
+        if (userMapper.lockById(userId) == null) {
+            throw BusinessException.of(ResultCode.USER_NOT_FOUND);
+        }
+        AssignmentDiff diff = AssignmentDiff.of(userRoleMapper.selectRoleIdsByUserId(userId), roleIds);
+        if (!diff.isChanged()) {
+            return diff;
+        }
+
+        // 只删除移除的角色关联
+        for (List<Long> chunk : BatchUtil.partition(diff.getRemoved())) {
+            userRoleMapper.deleteByUserIdAndRoleIds(userId, chunk);
+        }
         
-        // 添加新的角色关联
-        if (!CollectionUtils.isEmpty(roleIds)) {
-            List<SysUserRole> userRoles = roleIds.stream()
+        // 只插入新增的角色关联
+        for (List<Long> chunk : BatchUtil.partition(diff.getAdded())) {
+            List<SysUserRole> userRoles = chunk.stream()
                     .map(roleId -> {
                         SysUserRole userRole = new SysUserRole();
                         userRole.setUserId(userId);
@@ -287,9 +342,95 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
             
             userRoleMapper.batchInsert(userRoles);
         }
-        
-        log.info("分配用户角色成功，用户ID: {}, 角色ID列表: {}", userId, roleIds);
-        return true;
+
+        rbacEpochService.publish(RbacChangeEvent.Scope.USER, List.of(userId));
+        log.info("分配用户角色成功，用户ID: {}, 新增: {}, 移除: {}", userId, diff.getAdded(), diff.getRemoved());
+        return diff;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int grantRoles(Collection<Long> userIds, Collection<Long> roleIds, Long operatorId) {
+        List<Long> users = BatchUtil.distinctIds(userIds);
+        List<Long> roles = BatchUtil.distinctIds(roleIds);
+        if (users.isEmpty() || roles.isEmpty()) {
+            return 0;
+        }
+        requireUsersExist(users);
+        requireRolesExist(roles);
+
+        // 每条INSERT IGNORE最多写入IN_CHUNK_SIZE行，已存在的关联由唯一索引忽略
+        int inserted = 0;
+        for (List<Long> roleChunk : BatchUtil.partition(roles)) {
+            int usersPerChunk = Math.max(1, BatchUtil.IN_CHUNK_SIZE / roleChunk.size());
+            for (List<Long> userChunk : BatchUtil.partition(users, usersPerChunk)) {
+                inserted += userRoleMapper.insertIgnoreCrossJoin(userChunk, roleChunk, operatorId);
+            }
+        }
+
+        if (inserted > 0) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, users);
+        }
+        log.info("批量授予角色成功，用户数量: {}, 角色: {}, 新增关联: {}", users.size(), roles, inserted);
+        return inserted;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int revokeRoles(Collection<Long> userIds, Collection<Long> roleIds) {
+        List<Long> users = BatchUtil.distinctIds(userIds);
+        List<Long> roles = BatchUtil.distinctIds(roleIds);
+        if (users.isEmpty() || roles.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = 0;
+        for (List<Long> roleChunk : BatchUtil.partition(roles)) {
+            for (List<Long> userChunk : BatchUtil.partition(users)) {
+                deleted += userRoleMapper.deleteByUserIdsAndRoleIds(userChunk, roleChunk);
+            }
+        }
+
+        if (deleted > 0) {
+            rbacEpochService.publish(RbacChangeEvent.Scope.USER, users);
+        }
+        log.info("批量撤销角色成功，用户数量: {}, 角色: {}, 删除关联: {}", users.size(), roles, deleted);
+        return deleted;
+    }
+
+    /**
+     * 校验用户全部存在，不存在时列出缺失的用户ID
+     */
+    private void requireUsersExist(List<Long> userIds) {
+        Set<Long> missing = new LinkedHashSet<>(userIds);
+        for (List<Long> chunk : BatchUtil.partition(userIds)) {
+            userMapper.selectList(new LambdaQueryWrapper<SysUser>().select(SysUser::getId).in(SysUser::getId, chunk))
+                    .forEach(user -> missing.remove(user.getId()));
+        }
+        if (!missing.isEmpty()) {
+            throw BusinessException.of(ResultCode.USER_NOT_FOUND,
+                    ResultCode.USER_NOT_FOUND.getMessage() + ": " + abbreviate(missing));
+        }
+    }
+
+    /**
+     * 校验角色全部存在，不存在时列出缺失的角色ID
+     */
+    private void requireRolesExist(List<Long> roleIds) {
+        Set<Long> missing = new LinkedHashSet<>(roleIds);
+        for (List<Long> chunk : BatchUtil.partition(roleIds)) {
+            roleMapper.selectList(new LambdaQueryWrapper<SysRole>().select(SysRole::getId).in(SysRole::getId, chunk))
+                    .forEach(role -> missing.remove(role.getId()));
+        }
+        if (!missing.isEmpty()) {
+            throw BusinessException.of(ResultCode.ROLE_NOT_FOUND,
+                    ResultCode.ROLE_NOT_FOUND.getMessage() + ": " + abbreviate(missing));
+        }
+    }
+
+    private static String abbreviate(Collection<Long> ids) {
+        List<Long> shown = ids.stream().limit(10).toList();
+        return ids.size() > shown.size() ? shown + " 等" + ids.size() + "个" : shown.toString();
     }
 
     @Override
@@ -307,6 +448,34 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return userMapper.selectUserRoleIds(userId);
     }
 
+    @Override
+    public void hydrateRoles(Collection<SysUser> users, boolean withRoles) {
+        if (CollectionUtils.isEmpty(users)) {
+            return;
+        }
+        List<Long> userIds = users.stream().map(SysUser::getId).distinct().toList();
+        Map<Long, List<UserRoleInfo>> rolesByUser = new HashMap<>(userIds.size() * 2);
+        for (List<Long> chunk : BatchUtil.partition(userIds)) {
+            for (UserRoleInfo info : userMapper.selectRolesByUserIds(chunk)) {
+                rolesByUser.computeIfAbsent(info.getUserId(), k -> new ArrayList<>()).add(info);
+            }
+        }
+
+        for (SysUser user : users) {
+            List<UserRoleInfo> infos = rolesByUser.getOrDefault(user.getId(), List.of());
+            user.setRoleIds(infos.stream().map(UserRoleInfo::getRoleId).collect(Collectors.toList()));
+            if (withRoles) {
+                user.setRoles(infos.stream().map(info -> {
+                    SysRole role = new SysRole();
+                    role.setId(info.getRoleId());
+                    role.setCode(info.getRoleCode());
+                    role.setName(info.getRoleName());
+                    return role;
+                }).collect(Collectors.toList()));
+            }
+        }
+    }
+
     @Override
     public boolean updateLastLoginInfo(Long userId, String loginIp) {
         return userMapper.updateLastLoginInfo(userId, LocalDateTime.now().toString(), loginIp) > 0;
@@ -327,6 +496,32 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return getByPhone(phone) != null;
     }
 
+    /**
+     * 构建用户查询条件
+     */
+    private LambdaQueryWrapper<SysUser> buildQueryWrapper(UserQueryRequest request) {
+        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
+        wrapper.like(StringUtils.hasText(request.getUsername()), SysUser::getUsername, request.getUsername())
+               .like(StringUtils.hasText(request.getNickname()), SysUser::getNickname, request.getNickname())
+               .like(StringUtils.hasText(request.getEmail()), SysUser::getEmail, request.getEmail())
+               .like(StringUtils.hasText(request.getPhone()), SysUser::getPhone, request.getPhone())
+               .eq(request.getGender() != null, SysUser::getGender, request.getGender())
+               .eq(request.getStatus() != null, SysUser::getStatus, request.getStatus())
+               .ge(request.getCreateTimeStart() != null, SysUser::getCreateTime, request.getCreateTimeStart())
+               .le(request.getCreateTimeEnd() != null, SysUser::getCreateTime, request.getCreateTimeEnd());
+        return wrapper;
+    }
+
+    /**
+     * 是否有过滤条件，有条件时无法用表统计信息估算总数
+     */
+    private boolean hasFilter(UserQueryRequest request) {
+        return StringUtils.hasText(request.getUsername()) || StringUtils.hasText(request.getNickname())
+                || StringUtils.hasText(request.getEmail()) || StringUtils.hasText(request.getPhone())
+                || request.getGender() != null || request.getStatus() != null
+                || request.getCreateTimeStart() != null || request.getCreateTimeEnd() != null;
+    }
+
     /**
      * 根据属性名获取数据库字段
      */
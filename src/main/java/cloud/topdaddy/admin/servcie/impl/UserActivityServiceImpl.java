@@ -0,0 +1,179 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.config.ActivityProperties;
+import cloud.topdaddy.admin.dto.OnlineSession;
+import cloud.topdaddy.admin.entity.SysUser;
+import cloud.topdaddy.admin.mapper.SysUserMapper;
+import cloud.topdaddy.admin.servcie.SessionRegistryService;
+import cloud.topdaddy.admin.servcie.UserActivityService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户活跃记录服务实现类
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserActivityServiceImpl implements UserActivityService {
+
+    private final SysUserMapper userMapper;
+    private final SessionRegistryService sessionRegistryService;
+    private final ActivityProperties activityProperties;
+
+    /**
+     * 用户ID -> 最近一次登录
+     */
+    private final Map<Long, SysUser> pendingLogins = new ConcurrentHashMap<>();
+
+    /**
+     * 会话ID -> 最近一次活跃
+     */
+    private final Map<String, OnlineSession> pendingActivities = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * 是否已请求后台线程提前刷写
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = activityProperties.getFlushInterval();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public void recordLogin(Long userId, String loginIp) {
+        SysUser login = new SysUser();
+        login.setId(userId);
+        login.setLastLoginTime(LocalDateTime.now());
+        login.setLastLoginIp(loginIp);
+        pendingLogins.put(userId, login);
+        if (pendingLogins.size() > activityProperties.getMaxPending()) {
+            // 数据库持续不可用时淘汰最早的登录记录
+            evictOldestLogin();
+        }
+        applyBackpressure();
+    }
+
+    @Override
+    public void recordActivity(Long userId, String sessionId) {
+        OnlineSession activity = new OnlineSession();
+        activity.setUserId(userId);
+        activity.setSessionId(sessionId);
+        activity.setLastActiveTime(System.currentTimeMillis());
+        if (pendingActivities.size() >= activityProperties.getMaxPending() && !pendingActivities.containsKey(sessionId)) {
+            // 积压时丢弃新会话的活跃记录，会话仍按登录时间保留
+            applyBackpressure();
+            return;
+        }
+        pendingActivities.put(sessionId, activity);
+        applyBackpressure();
+    }
+
+    @Override
+    public synchronized void flush() {
+        flushLogins();
+        flushActivities();
+    }
+
+    /**
+     * 批量更新最后登录信息，已被更新的条目保留到下一轮
+     */
+    private void flushLogins() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+        List<SysUser> logins = new ArrayList<>(pendingLogins.values());
+        int batchSize = activityProperties.getBatchSize();
+        for (int from = 0; from < logins.size(); from += batchSize) {
+            List<SysUser> batch = logins.subList(from, Math.min(from + batchSize, logins.size()));
+            userMapper.batchUpdateLastLoginInfo(batch);
+            batch.forEach(login -> pendingLogins.remove(login.getId(), login));
+        }
+        log.debug("刷写最后登录信息完成，用户数量: {}", logins.size());
+    }
+
+    /**
+     * 批量写入会话活跃时间
+     */
+    private void flushActivities() {
+        if (pendingActivities.isEmpty()) {
+            return;
+        }
+        List<OnlineSession> activities = new ArrayList<>(pendingActivities.values());
+        sessionRegistryService.touchAll(activities);
+        activities.forEach(activity -> pendingActivities.remove(activity.getSessionId(), activity));
+        log.debug("刷写会话活跃时间完成，会话数量: {}", activities.size());
+    }
+
+    /**
+     * 缓冲区超出上限时通知后台线程提前刷写，调用线程不等待数据库和Redis
+     */
+    private void applyBackpressure() {
+        if (pendingLogins.size() + pendingActivities.size() < activityProperties.getMaxPending()) {
+            return;
+        }
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void evictOldestLogin() {
+        pendingLogins.values().stream()
+                .min(Comparator.comparing(SysUser::getLastLoginTime))
+                .ifPresent(oldest -> {
+                    pendingLogins.remove(oldest.getId(), oldest);
+                    log.warn("登录记录积压，丢弃用户 {} 的最后登录信息", oldest.getId());
+                });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("刷写用户活跃记录失败", e);
+        }
+    }
+}
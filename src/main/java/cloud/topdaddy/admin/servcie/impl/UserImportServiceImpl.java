@@ -0,0 +1,594 @@
+package cloud.topdaddy.admin.servcie.impl;
+
+import cloud.topdaddy.admin.common.ResultCode;
+import cloud.topdaddy.admin.config.UserImportProperties;
+import cloud.topdaddy.admin.dto.ImportProgress;
+import cloud.topdaddy.admin.dto.ImportRowError;
+import cloud.topdaddy.admin.dto.UserCreateRequest;
+import cloud.topdaddy.admin.entity.SysRole;
+import cloud.topdaddy.admin.entity.SysUser;
+import cloud.topdaddy.admin.entity.SysUserRole;
+import cloud.topdaddy.admin.exception.BusinessException;
+import cloud.topdaddy.admin.mapper.SysRoleMapper;
+import cloud.topdaddy.admin.mapper.SysUserMapper;
+import cloud.topdaddy.admin.mapper.SysUserRoleMapper;
+import cloud.topdaddy.admin.servcie.UserImportService;
+import cn.hutool.core.util.IdUtil;
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 用户批量导入服务实现类
+ * <p>
+ * 导入任务逐个执行。读取线程负责解析和校验，密码加密提交到有界线程池，
+ * 队列满时由读取线程自己加密，以此限制内存中待插入的行数。
+ *
+ * @author topdaddy
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private final SysUserMapper userMapper;
+    private final SysUserRoleMapper userRoleMapper;
+    private final SysRoleMapper roleMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final UserImportProperties userImportProperties;
+
+    private static final String STATUS_QUEUED = "QUEUED";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_SUCCESS = "SUCCESS";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService jobExecutor;
+    private ThreadPoolExecutor hashPool;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int threads = userImportProperties.getHashThreads() > 0
+                ? userImportProperties.getHashThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        hashPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    @Override
+    public ImportProgress submit(InputStream in, Format format, Long operatorId) throws IOException {
+        evictFinishedJobs();
+
+        // 上传的临时文件在请求结束后删除，先复制一份供后台任务读取
+        Path file = Files.createTempFile("user-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(IdUtil.fastSimpleUUID());
+        jobs.put(job.id, job);
+        jobExecutor.execute(() -> run(job, file, format, operatorId));
+        log.info("提交用户导入任务，任务ID: {}, 格式: {}", job.id, format);
+        return job.snapshot();
+    }
+
+    @Override
+    public ImportProgress getProgress(String jobId) {
+        return requireJob(jobId).snapshot();
+    }
+
+    @Override
+    public List<ImportRowError> getErrors(String jobId) {
+        ImportJob job = requireJob(jobId);
+        synchronized (job.errors) {
+            return new ArrayList<>(job.errors);
+        }
+    }
+
+    /**
+     * 执行导入任务
+     */
+    private void run(ImportJob job, Path file, Format format, Long operatorId) {
+        job.status = STATUS_RUNNING;
+        job.startTime = LocalDateTime.now();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            UniqueKeys keys = preloadUniqueKeys();
+            RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+            int batchSize = userImportProperties.getBatchSize();
+            List<PendingUser> batch = new ArrayList<>(batchSize);
+
+            ParsedRow row;
+            while ((row = source.next()) != null) {
+                job.processed.incrementAndGet();
+                String error = row.error != null ? row.error : validate(row.request, keys);
+                if (error != null) {
+                    job.fail(row.rowNumber, row.request != null ? row.request.getUsername() : null, error,
+                            userImportProperties.getMaxErrors());
+                    continue;
+                }
+                batch.add(prepare(row, operatorId));
+                if (batch.size() >= batchSize) {
+                    insertBatch(job, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                insertBatch(job, batch);
+            }
+            job.status = STATUS_SUCCESS;
+            log.info("用户导入完成，任务ID: {}, 成功: {}, 失败: {}", job.id, job.success.get(), job.failed.get());
+        } catch (Exception e) {
+            job.status = STATUS_FAILED;
+            job.message = e.getMessage();
+            log.error("用户导入失败，任务ID: {}", job.id, e);
+        } finally {
+            job.endTime = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 预加载已有的用户名、邮箱、手机号和有效角色ID
+     */
+    private UniqueKeys preloadUniqueKeys() {
+        UniqueKeys keys = new UniqueKeys();
+        userMapper.selectUniqueKeys(context -> {
+            SysUser user = context.getResultObject();
+            keys.usernames.add(normalize(user.getUsername()));
+            if (Integer.valueOf(0).equals(user.getDeleted())) {
+                if (StringUtils.hasText(user.getEmail())) {
+                    keys.emails.add(normalize(user.getEmail()));
+                }
+                if (StringUtils.hasText(user.getPhone())) {
+                    keys.phones.add(user.getPhone());
+                }
+            }
+        });
+        roleMapper.selectList(new LambdaQueryWrapper<SysRole>().select(SysRole::getId))
+                .forEach(role -> keys.roleIds.add(role.getId()));
+        log.debug("预加载用户唯一性数据完成，用户名数量: {}", keys.usernames.size());
+        return keys;
+    }
+
+    /**
+     * 校验一行数据，通过后占用其用户名、邮箱和手机号，返回null表示通过
+     */
+    private String validate(UserCreateRequest request, UniqueKeys keys) {
+        Set<ConstraintViolation<UserCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("；"));
+        }
+        String username = normalize(request.getUsername());
+        String email = StringUtils.hasText(request.getEmail()) ? normalize(request.getEmail()) : null;
+        String phone = request.getPhone();
+        if (keys.usernames.contains(username)) {
+            return ResultCode.USERNAME_EXISTS.getMessage();
+        }
+        if (email != null && keys.emails.contains(email)) {
+            return ResultCode.EMAIL_EXISTS.getMessage();
+        }
+        if (phone != null && keys.phones.contains(phone)) {
+            return ResultCode.PHONE_EXISTS.getMessage();
+        }
+        if (request.getRoleIds() != null) {
+            for (Long roleId : request.getRoleIds()) {
+                if (!keys.roleIds.contains(roleId)) {
+                    return ResultCode.ROLE_NOT_FOUND.getMessage() + ": " + roleId;
+                }
+            }
+        }
+
+        keys.usernames.add(username);
+        if (email != null) {
+            keys.emails.add(email);
+        }
+        if (phone != null) {
+            keys.phones.add(phone);
+        }
+        return null;
+    }
+
+    /**
+     * 构建待插入的用户并提交密码加密
+     */
+    private PendingUser prepare(ParsedRow row, Long operatorId) {
+        UserCreateRequest request = row.request;
+        SysUser user = new SysUser();
+        BeanUtils.copyProperties(request, user);
+        LocalDateTime now = LocalDateTime.now();
+        user.setCreator(operatorId);
+        user.setCreateTime(now);
+        user.setUpdater(operatorId);
+        user.setUpdateTime(now);
+
+        String rawPassword = request.getPassword();
+        Future<String> hash = hashPool.submit(() -> passwordEncoder.encode(rawPassword));
+        List<Long> roleIds = request.getRoleIds() == null ? List.of() : new ArrayList<>(new LinkedHashSet<>(request.getRoleIds()));
+        return new PendingUser(row.rowNumber, user, roleIds, hash);
+    }
+
+    /**
+     * 等待本批密码加密完成后执行多行INSERT，整批失败时逐行重试以定位错误行
+     */
+    private void insertBatch(ImportJob job, List<PendingUser> batch) throws InterruptedException {
+        List<PendingUser> ready = new ArrayList<>(batch.size());
+        for (PendingUser pending : batch) {
+            try {
+                pending.user.setPassword(pending.hash.get());
+                ready.add(pending);
+            } catch (ExecutionException e) {
+                job.fail(pending.rowNumber, pending.user.getUsername(), "密码加密失败: " + e.getCause().getMessage(),
+                        userImportProperties.getMaxErrors());
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertUsers(ready));
+            job.success.addAndGet(ready.size());
+        } catch (DataAccessException e) {
+            log.warn("批量插入用户失败，逐行重试，任务ID: {}", job.id, e);
+            for (PendingUser pending : ready) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertUsers(List.of(pending)));
+                    job.success.incrementAndGet();
+                } catch (DataAccessException ex) {
+                    job.fail(pending.rowNumber, pending.user.getUsername(), ex.getMostSpecificCause().getMessage(),
+                            userImportProperties.getMaxErrors());
+                }
+            }
+        }
+    }
+
+    private void insertUsers(List<PendingUser> pendingUsers) {
+        userMapper.batchInsert(pendingUsers.stream().map(pending -> pending.user).collect(Collectors.toList()));
+
+        List<PendingUser> withRoles = pendingUsers.stream().filter(pending -> !pending.roleIds.isEmpty()).toList();
+        if (withRoles.isEmpty()) {
+            return;
+        }
+        Map<String, Long> userIds = new HashMap<>(withRoles.size() * 2);
+        userMapper.selectIdsByUsernames(withRoles.stream().map(pending -> pending.user.getUsername()).toList())
+                .forEach(user -> userIds.put(normalize(user.getUsername()), user.getId()));
+
+        List<SysUserRole> userRoles = new ArrayList<>();
+        for (PendingUser pending : withRoles) {
+            Long userId = userIds.get(normalize(pending.user.getUsername()));
+            for (Long roleId : pending.roleIds) {
+                SysUserRole userRole = new SysUserRole();
+                userRole.setUserId(userId);
+                userRole.setRoleId(roleId);
+                userRole.setCreator(pending.user.getCreator());
+                userRole.setCreateTime(pending.user.getCreateTime());
+                userRoles.add(userRole);
+            }
+        }
+        userRoleMapper.batchInsert(userRoles);
+    }
+
+    private ImportJob requireJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw BusinessException.of(ResultCode.PARAM_ERROR, "导入任务不存在或已过期");
+        }
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minusNanos(userImportProperties.getJobRetention() * 1_000_000L);
+        jobs.values().removeIf(job -> job.endTime != null && job.endTime.isBefore(expireBefore));
+    }
+
+    /**
+     * 用户名和邮箱按不区分大小写比较，与数据库排序规则一致
+     */
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+
+    /**
+     * 空字符串按未填写处理，避免触发格式校验
+     */
+    private static void normalizeRequest(UserCreateRequest request) {
+        request.setUsername(emptyToNull(request.getUsername()));
+        request.setNickname(emptyToNull(request.getNickname()));
+        request.setEmail(emptyToNull(request.getEmail()));
+        request.setPhone(emptyToNull(request.getPhone()));
+        request.setRemark(emptyToNull(request.getRemark()));
+    }
+
+    /**
+     * 导入任务状态
+     */
+    private static class ImportJob {
+
+        private final String id;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportRowError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = STATUS_QUEUED;
+        private volatile String message;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime endTime;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        void fail(long rowNumber, String username, String message, int maxErrors) {
+            failed.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowError(rowNumber, username, message));
+            }
+        }
+
+        ImportProgress snapshot() {
+            ImportProgress progress = new ImportProgress();
+            progress.setJobId(id);
+            progress.setStatus(status);
+            progress.setProcessedRows(processed.get());
+            progress.setSuccessCount(success.get());
+            progress.setFailedCount(failed.get());
+            progress.setMessage(message);
+            progress.setStartTime(startTime);
+            progress.setEndTime(endTime);
+            return progress;
+        }
+    }
+
+    /**
+     * 已存在的唯一性数据，校验通过的行会加入其中
+     */
+    private static class UniqueKeys {
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+        private final Set<Long> roleIds = new HashSet<>();
+    }
+
+    /**
+     * 解析后的一行，解析失败时error不为空
+     */
+    private record ParsedRow(long rowNumber, UserCreateRequest request, String error) {
+    }
+
+    /**
+     * 等待插入的用户
+     */
+    private record PendingUser(long rowNumber, SysUser user, List<Long> roleIds, Future<String> hash) {
+    }
+
+    /**
+     * 逐行读取导入数据
+     */
+    private interface RowSource {
+
+        /**
+         * 读取下一行，没有更多数据时返回null
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    /**
+     * NDJSON格式，每行一个JSON对象，字段与创建用户请求一致，空行跳过
+     */
+    private static class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long rowNumber;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    rowNumber++;
+                    try {
+                        UserCreateRequest request = JSON.parseObject(line, UserCreateRequest.class);
+                        if (request == null) {
+                            return new ParsedRow(rowNumber, null, "数据格式错误");
+                        }
+                        normalizeRequest(request);
+                        return new ParsedRow(rowNumber, request, null);
+                    } catch (Exception e) {
+                        return new ParsedRow(rowNumber, null, "数据格式错误: " + e.getMessage());
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CSV格式，首行为列名，支持username、password、nickname、email、phone、gender、status、remark、roleIds，
+     * 多个角色ID用分号分隔；字段可用双引号包裹，引号内可包含逗号和换行
+     */
+    private static class CsvRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long rowNumber;
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw BusinessException.of(ResultCode.PARAM_ERROR, "导入文件为空");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").trim();
+                columns.put(name.toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("username") || !columns.containsKey("password")) {
+                throw BusinessException.of(ResultCode.PARAM_ERROR, "导入文件缺少username或password列");
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+            rowNumber++;
+
+            try {
+                UserCreateRequest request = new UserCreateRequest();
+                request.setUsername(cell(record, "username"));
+                request.setPassword(cell(record, "password"));
+                request.setNickname(cell(record, "nickname"));
+                request.setEmail(cell(record, "email"));
+                request.setPhone(cell(record, "phone"));
+                request.setRemark(cell(record, "remark"));
+                String gender = cell(record, "gender");
+                if (StringUtils.hasText(gender)) {
+                    request.setGender(Integer.valueOf(gender.trim()));
+                }
+                String status = cell(record, "status");
+                if (StringUtils.hasText(status)) {
+                    request.setStatus(Integer.valueOf(status.trim()));
+                }
+                String roleIds = cell(record, "roleids");
+                if (StringUtils.hasText(roleIds)) {
+                    List<Long> ids = new ArrayList<>();
+                    for (String id : roleIds.split("[;|]")) {
+                        if (StringUtils.hasText(id)) {
+                            ids.add(Long.valueOf(id.trim()));
+                        }
+                    }
+                    request.setRoleIds(ids);
+                }
+                normalizeRequest(request);
+                return new ParsedRow(rowNumber, request, null);
+            } catch (NumberFormatException e) {
+                return new ParsedRow(rowNumber, null, "数字格式错误: " + e.getMessage());
+            }
+        }
+
+        private String cell(List<String> record, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < record.size() ? record.get(index) : null;
+        }
+
+        /**
+         * 读取一条记录，文件结束时返回null
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            record.add(field.toString());
+            return record;
+        }
+    }
+}
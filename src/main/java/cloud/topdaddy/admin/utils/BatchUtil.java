@@ -0,0 +1,58 @@
+package cloud.topdaddy.admin.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 批量操作工具类
+ *
+ * @author topdaddy
+ */
+public class BatchUtil {
+
+    /**
+     * 单条 IN (...) 语句包含的最大ID数
+     */
+    public static final int IN_CHUNK_SIZE = 1000;
+
+    /**
+     * 去除null和重复项，保留原有顺序
+     *
+     * @param ids ID集合
+     * @return 去重后的ID列表
+     */
+    public static List<Long> distinctIds(Collection<Long> ids) {
+        LinkedHashSet<Long> set = new LinkedHashSet<>(ids);
+        set.remove(null);
+        return new ArrayList<>(set);
+    }
+
+    /**
+     * 按固定大小切分列表，返回原列表的视图
+     *
+     * @param list 待切分列表
+     * @param size 每段大小
+     * @return 切分后的列表
+     */
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        Objects.requireNonNull(list);
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 按 {@link #IN_CHUNK_SIZE} 切分列表
+     *
+     * @param list 待切分列表
+     * @return 切分后的列表
+     */
+    public static <T> List<List<T>> partition(List<T> list) {
+        return partition(list, IN_CHUNK_SIZE);
+    }
+}
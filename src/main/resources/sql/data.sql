@@ -22,6 +22,7 @@ INSERT INTO `sys_permission` (`id`, `parent_id`, `name`, `code`, `type`, `path`,
 (5, 2, '用户修改', 'system:user:edit', 3, '', '', '', 3, 1, 0, '用户修改权限', 1, NOW()),
 (6, 2, '用户删除', 'system:user:delete', 3, '', '', '', 4, 1, 0, '用户删除权限', 1, NOW()),
 (7, 2, '重置密码', 'system:user:resetPwd', 3, '', '', '', 5, 1, 0, '重置密码权限', 1, NOW()),
+(31, 2, '用户导入', 'system:user:import', 3, '', '', '', 6, 1, 0, '用户导入权限', 1, NOW()),
 
 (8, 1, '角色管理', 'system:role', 2, '/system/role', 'system/role/index', 'role', 2, 1, 1, '角色管理菜单', 1, NOW()),
 (9, 8, '角色查询', 'system:role:query', 3, '', '', '', 1, 1, 0, '角色查询权限', 1, NOW()),
@@ -41,10 +42,12 @@ INSERT INTO `sys_permission` (`id`, `parent_id`, `name`, `code`, `type`, `path`,
 (20, 19, '操作日志', 'log:operation', 2, '/log/operation', 'log/operation/index', 'operation', 1, 1, 1, '操作日志菜单', 1, NOW()),
 (21, 20, '操作日志查询', 'log:operation:query', 3, '', '', '', 1, 1, 0, '操作日志查询权限', 1, NOW()),
 (22, 20, '操作日志删除', 'log:operation:delete', 3, '', '', '', 2, 1, 0, '操作日志删除权限', 1, NOW()),
+(29, 20, '操作日志导出', 'log:operation:export', 3, '', '', '', 3, 1, 0, '操作日志导出权限', 1, NOW()),
 
 (23, 19, '登录日志', 'log:login', 2, '/log/login', 'log/login/index', 'login', 2, 1, 1, '登录日志菜单', 1, NOW()),
 (24, 23, '登录日志查询', 'log:login:query', 3, '', '', '', 1, 1, 0, '登录日志查询权限', 1, NOW()),
 (25, 23, '登录日志删除', 'log:login:delete', 3, '', '', '', 2, 1, 0, '登录日志删除权限', 1, NOW()),
+(30, 23, '登录日志导出', 'log:login:export', 3, '', '', '', 3, 1, 0, '登录日志导出权限', 1, NOW()),
 
 -- 个人中心
 (26, 0, '个人中心', 'profile', 2, '/profile', 'profile/index', 'user', 3, 1, 1, '个人中心菜单', 1, NOW()),
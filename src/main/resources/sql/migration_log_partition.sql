@@ -0,0 +1,30 @@
+-- 日志表按月分区迁移脚本
+-- 1. 分区表的主键必须包含分区列，主键改为 (id, 时间列)
+-- 2. 历史数据全部落入第一个分区，之后的分区由定时任务按月预建
+-- 3. 转换会重建整张表，请在业务低峰期执行；可先清理过期数据以缩短耗时
+
+USE `rbac_db`;
+
+ALTER TABLE `sys_operation_log`
+  MODIFY COLUMN `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `create_time`);
+
+ALTER TABLE `sys_operation_log`
+PARTITION BY RANGE COLUMNS (`create_time`) (
+  PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+  PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+  PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE `sys_login_log`
+  MODIFY COLUMN `login_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `login_time`);
+
+ALTER TABLE `sys_login_log`
+PARTITION BY RANGE COLUMNS (`login_time`) (
+  PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+  PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+  PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,13 @@
+-- 操作日志载荷列压缩存储迁移脚本
+-- 1. 将 params、result、error_msg 由 text 改为 mediumblob，原有数据按字节保留
+-- 2. 迁移前的数据没有编码标记，读取时按原文解码，可直接上线
+-- 3. 上线后调用 POST /api/logs/operation/compress-legacy 在后台分批压缩历史数据，
+--    进度按ID保存，中断后再次调用从上次位置继续，GET 同一地址查询进度
+-- 4. 编码标记为 0xF8 原文、0xF9 压缩，合法UTF-8文本不会以这两个字节开头
+
+USE `rbac_db`;
+
+ALTER TABLE `sys_operation_log`
+  MODIFY COLUMN `params` mediumblob COMMENT '请求参数，首字节为编码标记',
+  MODIFY COLUMN `result` mediumblob COMMENT '返回结果，首字节为编码标记',
+  MODIFY COLUMN `error_msg` mediumblob COMMENT '错误消息，首字节为编码标记';
@@ -0,0 +1,24 @@
+-- 操作日志小时汇总表迁移脚本
+-- 1. 新建汇总表，上线后由操作日志写入线程按小时增量维护
+-- 2. 每个节点只更新自己的汇总行，节点标识由 rbac.rollup.node 指定，默认使用主机名
+-- 3. 上线前的历史日志不回填，耗时统计从上线时刻开始累计
+
+USE `rbac_db`;
+
+CREATE TABLE IF NOT EXISTS `sys_operation_rollup` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '汇总ID',
+  `hour_time` datetime NOT NULL COMMENT '所属小时',
+  `node` varchar(64) NOT NULL COMMENT '写入节点',
+  `method` varchar(200) NOT NULL COMMENT '请求方法',
+  `operation` varchar(50) NOT NULL DEFAULT '' COMMENT '操作名称',
+  `user_id` bigint NOT NULL DEFAULT '0' COMMENT '用户ID，匿名请求为0',
+  `call_count` bigint NOT NULL DEFAULT '0' COMMENT '调用次数',
+  `error_count` bigint NOT NULL DEFAULT '0' COMMENT '失败次数',
+  `total_cost` bigint NOT NULL DEFAULT '0' COMMENT '总耗时(毫秒)',
+  `max_cost` bigint NOT NULL DEFAULT '0' COMMENT '最大耗时(毫秒)',
+  `histogram` blob COMMENT '耗时直方图',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_hour_node_method` (`hour_time`,`node`,`method`,`operation`,`user_id`),
+  KEY `idx_hour_time` (`hour_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志小时汇总表';
\ No newline at end of file
@@ -122,21 +122,26 @@ CREATE TABLE `sys_operation_log` (
   `username` varchar(50) DEFAULT NULL COMMENT '用户名',
   `operation` varchar(50) DEFAULT NULL COMMENT '操作名称',
   `method` varchar(200) DEFAULT NULL COMMENT '请求方法',
-  `params` text COMMENT '请求参数',
-  `result` text COMMENT '返回结果',
+  `params` mediumblob COMMENT '请求参数，首字节为编码标记',
+  `result` mediumblob COMMENT '返回结果，首字节为编码标记',
   `ip` varchar(50) DEFAULT NULL COMMENT 'IP地址',
   `location` varchar(200) DEFAULT NULL COMMENT '操作地点',
   `user_agent` varchar(500) DEFAULT NULL COMMENT '用户代理',
   `status` tinyint DEFAULT '1' COMMENT '操作状态：0-失败，1-成功',
-  `error_msg` text COMMENT '错误消息',
+  `error_msg` mediumblob COMMENT '错误消息，首字节为编码标记',
   `cost_time` int DEFAULT NULL COMMENT '执行时间(毫秒)',
-  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-  PRIMARY KEY (`id`),
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`, `create_time`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_username` (`username`),
   KEY `idx_status` (`status`),
   KEY `idx_create_time` (`create_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表'
+PARTITION BY RANGE COLUMNS (`create_time`) (
+  PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+  PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+  PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- 登录日志表
 DROP TABLE IF EXISTS `sys_login_log`;
@@ -148,9 +153,34 @@ CREATE TABLE `sys_login_log` (
   `user_agent` varchar(500) DEFAULT NULL COMMENT '用户代理',
   `status` tinyint DEFAULT '1' COMMENT '登录状态：0-失败，1-成功',
   `message` varchar(200) DEFAULT NULL COMMENT '提示消息',
-  `login_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
-  PRIMARY KEY (`id`),
+  `login_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+  PRIMARY KEY (`id`, `login_time`),
   KEY `idx_username` (`username`),
   KEY `idx_status` (`status`),
   KEY `idx_login_time` (`login_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='登录日志表';
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='登录日志表'
+PARTITION BY RANGE COLUMNS (`login_time`) (
+  PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+  PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+  PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 操作日志小时汇总表
+DROP TABLE IF EXISTS `sys_operation_rollup`;
+CREATE TABLE `sys_operation_rollup` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '汇总ID',
+  `hour_time` datetime NOT NULL COMMENT '所属小时',
+  `node` varchar(64) NOT NULL COMMENT '写入节点',
+  `method` varchar(200) NOT NULL COMMENT '请求方法',
+  `operation` varchar(50) NOT NULL DEFAULT '' COMMENT '操作名称',
+  `user_id` bigint NOT NULL DEFAULT '0' COMMENT '用户ID，匿名请求为0',
+  `call_count` bigint NOT NULL DEFAULT '0' COMMENT '调用次数',
+  `error_count` bigint NOT NULL DEFAULT '0' COMMENT '失败次数',
+  `total_cost` bigint NOT NULL DEFAULT '0' COMMENT '总耗时(毫秒)',
+  `max_cost` bigint NOT NULL DEFAULT '0' COMMENT '最大耗时(毫秒)',
+  `histogram` blob COMMENT '耗时直方图',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_hour_node_method` (`hour_time`,`node`,`method`,`operation`,`user_id`),
+  KEY `idx_hour_time` (`hour_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志小时汇总表';
\ No newline at end of file